@@ -0,0 +1,120 @@
+package com.example.employee.config;
+
+import com.example.employee.resolver.EmployeeQueryResolver;
+import com.example.employee.service.AuthService;
+import com.example.employee.service.EmployeeService;
+import ch.qos.logback.classic.LoggerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of one {@code employees} request as the application logs it: the resolver and
+ * service statements, a login line and, every tenth request, a rejected one. {@code default} is
+ * the development setup (synchronous console pattern, DEBUG for the application), {@code prod}
+ * the prod profile from {@code logback-spring.xml} and {@code application-prod.yml}.
+ * <p>
+ * A tight loop logs far more than the 20 events per second per statement {@link LogRateLimitFilter}
+ * lets through, so with {@code prod} nearly every call ends in the filter's drop path. {@code prod-unlimited}
+ * is the same setup with the limit lifted, which measures handing every event to the asynchronous
+ * ECS appender; compare both to {@code default}. The appender itself still discards INFO events
+ * while its queue is more than 80% full.
+ * <p>
+ * Output goes to a discarding stream, so this measures formatting and appender overhead on the
+ * request threads, not terminal or disk speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class LoggingOverheadBenchmark {
+
+    private static final Logger RESOLVER_LOG = LoggerFactory.getLogger(EmployeeQueryResolver.class);
+    private static final Logger SERVICE_LOG = LoggerFactory.getLogger(EmployeeService.class);
+    private static final Logger AUTH_LOG = LoggerFactory.getLogger(AuthService.class);
+    private static final Logger HANDLER_LOG = LoggerFactory.getLogger(GraphQLExceptionHandler.class);
+
+    private static final Map<String, Object> FILTER = Map.of("className", "Engineering", "subject", "Java");
+    private static final AccessDeniedException DENIED = new AccessDeniedException("Access Denied");
+
+    @Param({"default", "prod", "prod-unlimited"})
+    public String profile;
+
+    private PrintStream originalOut;
+    private LoggingSystem loggingSystem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        boolean prod = profile.startsWith("prod");
+        StandardEnvironment environment = new StandardEnvironment();
+        if (prod) {
+            environment.setActiveProfiles("prod");
+        }
+
+        loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+        loggingSystem.beforeInitialize();
+        loggingSystem.initialize(new LoggingInitializationContext(environment), "classpath:logback-spring.xml", null);
+        loggingSystem.setLogLevel("com.example.employee", prod ? LogLevel.INFO : LogLevel.DEBUG);
+
+        if (profile.equals("prod-unlimited")) {
+            LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+            context.getTurboFilterList().stream()
+                    .filter(LogRateLimitFilter.class::isInstance)
+                    .forEach(filter -> ((LogRateLimitFilter) filter).setMaxPerSecond(Integer.MAX_VALUE));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loggingSystem.cleanUp();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void employeesRequest() {
+        MDC.put(CorrelationIdFilter.MDC_KEY, UUID.randomUUID().toString());
+        try {
+            RESOLVER_LOG.debug("Query: employees with filter: {}, page: {}, size: {}", FILTER, 0, 20);
+            SERVICE_LOG.debug("Fetching employees with filter: {}, page: {}, size: {}", FILTER, 0, 20);
+            AUTH_LOG.info("User login attempt: {}", "admin");
+            if (ThreadLocalHolder.next() % 10 == 0) {
+                HANDLER_LOG.info("GraphQL request rejected at {}: {}", "/employee", DENIED.toString());
+            }
+        } finally {
+            MDC.remove(CorrelationIdFilter.MDC_KEY);
+        }
+    }
+
+    private static final class ThreadLocalHolder {
+        private static final ThreadLocal<int[]> COUNTER = ThreadLocal.withInitial(() -> new int[1]);
+
+        static int next() {
+            return COUNTER.get()[0]++;
+        }
+    }
+}
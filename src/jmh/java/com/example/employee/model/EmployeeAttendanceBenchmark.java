@@ -0,0 +1,51 @@
+package com.example.employee.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Employee#getAttendance()} converting the attendance map to records, by number of
+ * recorded days: a month, a year and ten years of history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeAttendanceBenchmark {
+
+    @Param({"30", "365", "3650"})
+    public int days;
+
+    private Employee employee;
+
+    @Setup
+    public void setUp() {
+        Map<LocalDate, Boolean> attendance = new HashMap<>();
+        LocalDate first = LocalDate.of(2015, 1, 1);
+        for (int i = 0; i < days; i++) {
+            attendance.put(first.plusDays(i), i % 7 != 0);
+        }
+
+        employee = Employee.builder()
+                .id(1L)
+                .name("Alice")
+                .attendanceData(attendance)
+                .build();
+    }
+
+    @Benchmark
+    public List<AttendanceRecord> getAttendance() {
+        return employee.getAttendance();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.employee.resolver;
+
+import com.example.employee.model.Employee;
+import com.example.employee.repository.ReactiveEmployeeRepository;
+import com.example.employee.service.AttendanceWriteBehindBuffer;
+import com.example.employee.service.EmployeeReadModel;
+import com.example.employee.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EmployeeQueryResolver#mapEmployeeToResponse} plus the {@code attendance} field for one
+ * page of 20 employees, by days of attendance per employee. The employees are plain, already loaded objects, so no lazy loading
+ * or write-behind merge is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeMappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "30", "365"})
+    public int days;
+
+    private EmployeeQueryResolver resolver;
+    private List<Employee> page;
+
+    @Setup
+    public void setUp() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        EmployeeService employeeService = new EmployeeService(null, null, null, null, null,
+                beans.getBeanProvider(AttendanceWriteBehindBuffer.class),
+                beans.getBeanProvider(EmployeeReadModel.class));
+        resolver = new EmployeeQueryResolver(employeeService, null, null, beans.getBeanProvider(ReactiveEmployeeRepository.class));
+
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        page = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            Map<LocalDate, Boolean> attendance = new HashMap<>();
+            for (int day = 0; day < days; day++) {
+                attendance.put(LocalDate.of(2024, 1, 1).plusDays(day), day % 7 != 0);
+            }
+
+            page.add(Employee.builder()
+                    .id(id)
+                    .name("Employee " + id)
+                    .age(30)
+                    .className("Engineering")
+                    .subjects(List.of("Java", "SQL"))
+                    .email("employee" + id + "@example.com")
+                    .phone("555-0100")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .attendanceData(attendance)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> mapPage() {
+        List<Map<String, Object>> content = new ArrayList<>(PAGE_SIZE);
+        for (Employee employee : page) {
+            Map<String, Object> mapped = resolver.mapEmployeeToResponse(employee);
+            mapped.put("attendance", resolver.attendance(mapped, false));
+            content.add(mapped);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.employee.resolver;
+
+import com.example.employee.EmployeeApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@code employees} query over HTTP as the number of concurrent clients grows,
+ * with the blocking JPA read path versus the R2DBC one.
+ * <p>
+ * Each invocation fires {@value #REQUESTS} requests with at most {@code clients} in flight, so the
+ * score is requests per second. Needs the usual {@code SPRING_DATASOURCE_*} variables plus
+ * {@code SPRING_R2DBC_URL} pointing at the same, populated database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmployeeQueryConcurrencyBenchmark {
+
+    private static final int REQUESTS = 512;
+
+    private static final String QUERY = "{\"query\":\"{ employees(page: 0, size: 20, filter: {className: \\\"Engineering\\\"}) " +
+            "{ content { id name className subjects } pageInfo { totalElements } } }\"}";
+
+    @Param({"jpa", "r2dbc"})
+    public String readPath;
+
+    @Param({"8", "64", "256"})
+    public int clients;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI graphqlUri;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .properties(
+                        "server.port=0",
+                        "app.r2dbc.enabled=" + readPath.equals("r2dbc"),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.employee=WARN")
+                .run();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        graphqlUri = URI.create("http://localhost:" + port + "/graphql");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String login = "{\"query\":\"mutation { login(username: \\\"admin\\\", password: \\\"admin123\\\") { token } }\"}";
+        HttpResponse<String> response = httpClient.send(request(login, null), HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        token = body.path("data").path("login").path("token").asText();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void employees() {
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(clients);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            if (inFlight.size() == clients) {
+                CompletableFuture.anyOf(inFlight.toArray(new CompletableFuture[0])).join();
+                // join() rethrows a failed request instead of silently counting it
+                inFlight.removeIf(future -> future.isDone() && future.join() == null);
+            }
+            inFlight.add(httpClient.sendAsync(request(QUERY, token), HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200 || response.body().contains("\"errors\"")) {
+                            throw new IllegalStateException("Query failed: " + response.body());
+                        }
+                    }));
+        }
+
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+    }
+
+    private HttpRequest request(String body, String bearer) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(graphqlUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        return builder.build();
+    }
+}
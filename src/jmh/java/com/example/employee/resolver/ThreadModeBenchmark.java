@@ -0,0 +1,126 @@
+package com.example.employee.resolver;
+
+import com.example.employee.EmployeeApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@code employees} and {@code employee} queries over HTTP with platform versus
+ * virtual request threads, as concurrent clients grow past the Tomcat worker pool.
+ * <p>
+ * Each invocation fires {@value #REQUESTS} requests with at most {@code clients} in flight, so the
+ * score is requests per second. On tear down the pinning timer is printed for the virtual mode.
+ * Needs the usual {@code SPRING_DATASOURCE_*} variables pointing at a populated database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ThreadModeBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    private static final String QUERY = "{\"query\":\"{ employees(page: 0, size: 20, filter: {className: \\\"Engineering\\\"}) " +
+            "{ content { id name className subjects attendance { date present } } pageInfo { totalElements } } " +
+            "employee(id: 1) { id name attendance { date present } } }\"}";
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"64", "256", "1024"})
+    public int clients;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI graphqlUri;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "server.tomcat.max-connections=" + Math.max(8192, clients * 2),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.employee=WARN")
+                .run();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        graphqlUri = URI.create("http://localhost:" + port + "/graphql");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String login = "{\"query\":\"mutation { login(username: \\\"admin\\\", password: \\\"admin123\\\") { token } }\"}";
+        HttpResponse<String> response = httpClient.send(request(login, null), HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        token = body.path("data").path("login").path("token").asText();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Timer pinned : context.getBean(MeterRegistry.class).find("jvm.threads.virtual.pinned").timers()) {
+            System.out.printf("%n  pinned at %s: %d times, %.1f ms max%n", pinned.getId().getTag("location"),
+                    pinned.count(), pinned.max(TimeUnit.MILLISECONDS));
+        }
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void employees() {
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(clients);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            if (inFlight.size() == clients) {
+                CompletableFuture.anyOf(inFlight.toArray(new CompletableFuture[0])).join();
+                // join() rethrows a failed request instead of silently counting it
+                inFlight.removeIf(future -> future.isDone() && future.join() == null);
+            }
+            inFlight.add(httpClient.sendAsync(request(QUERY, token), HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200 || response.body().contains("\"errors\"")) {
+                            throw new IllegalStateException("Query failed: " + response.body());
+                        }
+                    }));
+        }
+
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+    }
+
+    private HttpRequest request(String body, String bearer) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(graphqlUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        return builder.build();
+    }
+}
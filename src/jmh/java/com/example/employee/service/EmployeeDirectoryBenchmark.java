@@ -0,0 +1,117 @@
+package com.example.employee.service;
+
+import com.example.employee.EmployeeApplication;
+import com.example.employee.dto.EmployeeSortField;
+import com.example.employee.model.Employee;
+import com.example.employee.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serving one page of the {@code employees} query through JPA versus through {@link EmployeeReadModel}.
+ * <p>
+ * Boots the application against the database configured by the usual {@code SPRING_DATASOURCE_*}
+ * variables, which should already hold a realistically sized directory. {@code jpa} runs the same
+ * Specification query as {@link EmployeeService#getAllEmployees} without the read model;
+ * {@code readModel} is the read model path including loading the page's entities by id;
+ * {@code readModelIdsOnly} isolates the in-memory filter and sort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmployeeDirectoryBenchmark {
+
+    @Param({"none", "class", "class-subject", "age-name"})
+    public String filter;
+
+    @Param({"ID", "NAME"})
+    public EmployeeSortField sortBy;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EmployeeRepository employeeRepository;
+    private EmployeeReadModel readModel;
+    private TransactionTemplate readOnlyTransaction;
+    private Map<String, Object> filterArgs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .properties(
+                        "server.port=0",
+                        "app.read-model.enabled=true",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.employee=WARN")
+                .run();
+
+        employeeService = context.getBean(EmployeeService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        readModel = context.getBean(EmployeeReadModel.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+
+        readModel.refresh();
+        filterArgs = filterArgs(filter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Employee> jpa() {
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by(sortBy.getProperty()).and(Sort.by("id")));
+        return readOnlyTransaction.execute(status -> filterArgs.isEmpty()
+                ? employeeRepository.findAll(pageable)
+                : employeeRepository.findAll(employeeService.createSpecification(filterArgs), pageable));
+    }
+
+    @Benchmark
+    public Page<Employee> readModel() {
+        return employeeService.getAllEmployees(filterArgs, 0, 20, sortBy, Sort.Direction.ASC);
+    }
+
+    @Benchmark
+    public EmployeeDirectorySnapshot.Result readModelIdsOnly() {
+        return readModel.query(filterArgs, sortBy, Sort.Direction.ASC, 0, 20);
+    }
+
+    private static Map<String, Object> filterArgs(String filter) {
+        Map<String, Object> args = new HashMap<>();
+        switch (filter) {
+            case "class" -> args.put("className", "Engineering");
+            case "class-subject" -> {
+                args.put("className", "Engineering");
+                args.put("subject", "Java");
+            }
+            case "age-name" -> {
+                args.put("minAge", 25);
+                args.put("maxAge", 40);
+                args.put("name", "an");
+            }
+            default -> {
+            }
+        }
+        return args;
+    }
+}
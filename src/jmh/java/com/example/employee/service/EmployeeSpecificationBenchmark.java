@@ -0,0 +1,82 @@
+package com.example.employee.service;
+
+import com.example.employee.model.Employee;
+import com.example.employee.model.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the criteria predicate of {@link EmployeeService#createSpecification} for typical
+ * filters. Hibernate is bootstrapped without a database connection, so only query construction is
+ * measured, not SQL rendering or execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmployeeSpecificationBenchmark {
+
+    @Param({"class", "class-subject", "age-name"})
+    public String filter;
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+    private EmployeeService employeeService;
+    private Map<String, Object> filterArgs;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Employee.class)
+                .addAnnotatedClass(User.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+
+        // createSpecification doesn't touch any collaborator
+        employeeService = new EmployeeService(null, null, null, null, null, null, null);
+
+        filterArgs = new HashMap<>();
+        switch (filter) {
+            case "class" -> filterArgs.put("className", "Engineering");
+            case "class-subject" -> {
+                filterArgs.put("className", "Engineering");
+                filterArgs.put("subject", "Java");
+            }
+            default -> {
+                filterArgs.put("minAge", 25);
+                filterArgs.put("maxAge", 40);
+                filterArgs.put("name", "an");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate toPredicate() {
+        CriteriaQuery<Employee> query = criteriaBuilder.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class);
+        return employeeService.createSpecification(filterArgs).toPredicate(root, query, criteriaBuilder);
+    }
+}
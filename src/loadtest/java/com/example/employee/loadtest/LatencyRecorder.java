@@ -0,0 +1,62 @@
+package com.example.employee.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies and failures of one operation. Keeps every sample, which is fine for the run lengths
+ * this harness is meant for (a few million requests at most).
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1 << 14];
+    private int count;
+    private long failures;
+
+    synchronized void record(long latencyNanos, boolean success) {
+        if (!success) {
+            failures++;
+        }
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = latencyNanos;
+    }
+
+    synchronized long failures() {
+        return failures;
+    }
+
+    /**
+     * Request count, error count, throughput and latency percentiles in milliseconds.
+     */
+    synchronized Map<String, Object> summary(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", failures);
+        summary.put("throughput", count / elapsedSeconds);
+        summary.put("p50", millis(percentile(sorted, 0.50)));
+        summary.put("p90", millis(percentile(sorted, 0.90)));
+        summary.put("p99", millis(percentile(sorted, 0.99)));
+        summary.put("p999", millis(percentile(sorted, 0.999)));
+        summary.put("max", millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.employee.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for a running instance: sends a weighted mix of {@code employees},
+ * {@code employee}, {@code markAttendance} and {@code login} requests at a fixed rate, and reports
+ * throughput and latency percentiles per operation, on stdout and as JSON for baseline tracking.
+ * <p>
+ * Latency is measured from when a request was scheduled, not when it was sent, so a server that
+ * falls behind shows up in the percentiles instead of silently lowering the request rate.
+ * Requests over {@code --max-in-flight} are not sent and counted as dropped.
+ * <p>
+ * Options (defaults): {@code --url=http://localhost:8082/graphql --rate=100 --duration=60s
+ * --warmup=10s --mix=employees:50,employee:25,markAttendance:20,login:5 --max-in-flight=512
+ * --username=admin --password=admin123 --output=build/results/loadtest/<timestamp>.json}
+ */
+public class LoadTest {
+
+    private static final String LOGIN =
+            "mutation Login($username: String!, $password: String!) { login(username: $username, password: $password) { token } }";
+    private static final String EMPLOYEES =
+            "query EmployeeList($filter: EmployeeFilter, $page: Int) { employees(filter: $filter, page: $page, size: 20) " +
+            "{ content { id name age className subjects email } pageInfo { totalElements totalPages } } }";
+    private static final String EMPLOYEE =
+            "query EmployeeDetail($id: ID!) { employee(id: $id) { id name className subjects attendance { date present } } }";
+    private static final String MARK_ATTENDANCE =
+            "mutation MarkAttendance($id: ID!, $date: String!, $present: Boolean!) " +
+            "{ markAttendance(employeeId: $id, date: $date, present: $present) { id } }";
+
+    private static final List<String> CLASSES = List.of("Engineering", "Sales", "Operations", "Marketing", "Finance", "HR", "Legal");
+    private static final List<String> SUBJECTS = List.of("Java", "SQL", "Excel", "Forecasting", "Labor Law");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private final Map<String, String> options;
+    private final URI graphqlUri;
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private String token;
+    private List<String> employeeIds;
+
+    LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.graphqlUri = URI.create(option("url", "http://localhost:8082/graphql"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        new LoadTest(options).run();
+    }
+
+    void run() throws Exception {
+        int rate = Integer.parseInt(option("rate", "100"));
+        Duration duration = duration(option("duration", "60s"));
+        Duration warmup = duration(option("warmup", "10s"));
+        int maxInFlight = Integer.parseInt(option("max-in-flight", "512"));
+        Map<String, Integer> mix = mix(option("mix", "employees:50,employee:25,markAttendance:20,login:5"));
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        token = login();
+        employeeIds = sampleEmployeeIds();
+        System.out.printf("Sending %d req/s for %s after %s warmup, mix %s, %d employees sampled%n",
+                rate, duration, warmup, mix, employeeIds.size());
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            String operation = pick(mix, totalWeight);
+            boolean measured = scheduled >= measureFrom;
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+
+            long scheduledAt = scheduled;
+            inFlight.incrementAndGet();
+            CompletableFuture<?> request = httpClient.sendAsync(request(operation), HttpResponse.BodyHandlers.ofString())
+                    .handle((response, ex) -> {
+                        inFlight.decrementAndGet();
+                        if (measured) {
+                            boolean success = ex == null && response.statusCode() == 200
+                                    && !response.body().contains("\"errors\"");
+                            recorders.computeIfAbsent(operation, name -> new LatencyRecorder())
+                                    .record(System.nanoTime() - scheduledAt, success);
+                        }
+                        return null;
+                    });
+            pending.add(request);
+            pending.removeIf(CompletableFuture::isDone);
+        }
+
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        report(rate, duration, (System.nanoTime() - measureFrom) / 1e9);
+    }
+
+    private HttpRequest request(String operation) throws IOException {
+        Map<String, Object> variables = new HashMap<>();
+        String query = switch (operation) {
+            case "employees" -> {
+                Map<String, Object> filter = new HashMap<>();
+                int shape = random.nextInt(3);
+                if (shape >= 1) {
+                    filter.put("className", CLASSES.get(random.nextInt(CLASSES.size())));
+                }
+                if (shape == 2) {
+                    filter.put("subject", SUBJECTS.get(random.nextInt(SUBJECTS.size())));
+                }
+                variables.put("filter", filter);
+                variables.put("page", random.nextInt(10));
+                yield EMPLOYEES;
+            }
+            case "employee" -> {
+                variables.put("id", randomEmployeeId());
+                yield EMPLOYEE;
+            }
+            case "markAttendance" -> {
+                variables.put("id", randomEmployeeId());
+                variables.put("date", LocalDate.now().minusDays(random.nextInt(30)).toString());
+                variables.put("present", random.nextInt(10) != 0);
+                yield MARK_ATTENDANCE;
+            }
+            case "login" -> {
+                variables.put("username", option("username", "admin"));
+                variables.put("password", option("password", "admin123"));
+                yield LOGIN;
+            }
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        };
+
+        return graphqlRequest(query, variables, operation.equals("login") ? null : token);
+    }
+
+    private HttpRequest graphqlRequest(String query, Map<String, Object> variables, String bearer) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(graphqlUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                        objectMapper.writeValueAsBytes(Map.of("query", query, "variables", variables))));
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        return builder.build();
+    }
+
+    private String login() throws IOException, InterruptedException {
+        JsonNode body = send(graphqlRequest(LOGIN,
+                Map.of("username", option("username", "admin"), "password", option("password", "admin123")), null));
+        return body.path("data").path("login").path("token").asText();
+    }
+
+    private List<String> sampleEmployeeIds() throws IOException, InterruptedException {
+        JsonNode body = send(graphqlRequest(
+                "{ employees(page: 0, size: 1000, sortBy: ID, sortDir: DESC) { content { id } } }", Map.of(), token));
+
+        List<String> ids = new ArrayList<>();
+        body.path("data").path("employees").path("content").forEach(employee -> ids.add(employee.path("id").asText()));
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No employees found, load data with the datagen profile first");
+        }
+        return ids;
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        if (response.statusCode() != 200 || body.has("errors")) {
+            throw new IllegalStateException("Request failed: " + response.body());
+        }
+        return body;
+    }
+
+    private String randomEmployeeId() {
+        return employeeIds.get(random.nextInt(employeeIds.size()));
+    }
+
+    private String pick(Map<String, Integer> mix, int totalWeight) {
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    private void report(int rate, Duration duration, double elapsedSeconds) throws IOException {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        recorders.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> operations.put(entry.getKey(), entry.getValue().summary(elapsedSeconds)));
+
+        System.out.printf("%n%-16s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        operations.forEach((name, value) -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> s = (Map<String, Object>) value;
+            System.out.printf("%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+                    s.get("requests"), s.get("errors"), s.get("throughput"),
+                    s.get("p50"), s.get("p90"), s.get("p99"), s.get("p999"), s.get("max"));
+        });
+        System.out.printf("dropped (over --max-in-flight): %d%n", dropped.get());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("url", graphqlUri.toString());
+        result.put("targetRate", rate);
+        result.put("durationSeconds", duration.toSeconds());
+        result.put("dropped", dropped.get());
+        result.put("operations", operations);
+
+        Path output = Path.of(option("output",
+                "build/results/loadtest/" + Instant.now().toString().replace(':', '-') + ".json"));
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        objectMapper.writeValue(output.toFile(), result);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static Map<String, Integer> mix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.split(":");
+            mix.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    // 90s, 2m, 500ms or an ISO-8601 duration
+    private static Duration duration(String value) {
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration " + value);
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.employee.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the extracted application jar repeatedly in each startup mode and measures the time from
+ * launching the JVM until the first {@code employees} query (after a {@code login}) is answered.
+ * The database from the usual {@code SPRING_DATASOURCE_*} variables must already be migrated, so
+ * every run measures a warm schema, like a scale-out.
+ * <p>
+ * Options (defaults): {@code --dir=build/faststart --jar=poc-1.0.0.jar --runs=5 --port=18082
+ * --modes=default,faststart,faststart-aot-cds --output=build/results/startup/<timestamp>.json}
+ */
+public class StartupBenchmark {
+
+    private static final Map<String, List<String>> MODES = Map.of(
+            "default", List.of(),
+            "faststart", List.of("-Dspring.profiles.active=faststart"),
+            "faststart-aot-cds", List.of("-Dspring.profiles.active=faststart", "-Dspring.aot.enabled=true",
+                    "-XX:SharedArchiveFile=application.jsa")
+    );
+
+    private static final String LOGIN =
+            "{\"query\":\"mutation { login(username: \\\"admin\\\", password: \\\"admin123\\\") { token } }\"}";
+    private static final String EMPLOYEES =
+            "{\"query\":\"{ employees(page: 0, size: 20) { content { id name } pageInfo { totalElements } } }\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new StartupBenchmark().run(options);
+    }
+
+    void run(Map<String, String> options) throws Exception {
+        File dir = new File(options.getOrDefault("dir", "build/faststart"));
+        String jar = options.getOrDefault("jar", "poc-1.0.0.jar");
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        int port = Integer.parseInt(options.getOrDefault("port", "18082"));
+        URI graphqlUri = URI.create("http://localhost:" + port + "/graphql");
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String mode : options.getOrDefault("modes", "default,faststart,faststart-aot-cds").split(",")) {
+            List<String> command = new ArrayList<>(List.of("java"));
+            command.addAll(MODES.get(mode));
+            command.addAll(List.of("-jar", jar, "--server.port=" + port, "--management.server.port=" + (port + 1)));
+
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstQuery(command, dir, graphqlUri);
+                System.out.printf("%-18s run %d: %d ms%n", mode, run + 1, millis[run]);
+            }
+
+            Arrays.sort(millis);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("runs", runs);
+            summary.put("minMillis", millis[0]);
+            summary.put("medianMillis", millis[runs / 2]);
+            summary.put("maxMillis", millis[runs - 1]);
+            results.put(mode, summary);
+        }
+
+        System.out.printf("%n%-18s %10s %10s %10s%n", "mode", "min ms", "median ms", "max ms");
+        results.forEach((mode, value) -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> s = (Map<String, Object>) value;
+            System.out.printf("%-18s %10d %10d %10d%n", mode, s.get("minMillis"), s.get("medianMillis"), s.get("maxMillis"));
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("modes", results);
+
+        Path output = Path.of(options.getOrDefault("output",
+                "build/results/startup/" + Instant.now().toString().replace(':', '-') + ".json"));
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        objectMapper.writeValue(output.toFile(), report);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private long timeToFirstQuery(List<String> command, File dir, URI graphqlUri) throws Exception {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(dir)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        try {
+            long deadline = start + TimeUnit.MINUTES.toNanos(2);
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                String token = login(graphqlUri);
+                if (token != null && employees(graphqlUri, token)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No employees response within 2 minutes: " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private String login(URI graphqlUri) throws IOException, InterruptedException {
+        HttpResponse<String> response = post(graphqlUri, LOGIN, null);
+        if (response == null || response.statusCode() != 200) {
+            return null;
+        }
+        String token = objectMapper.readTree(response.body()).path("data").path("login").path("token").asText();
+        return token.isEmpty() ? null : token;
+    }
+
+    private boolean employees(URI graphqlUri, String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = post(graphqlUri, EMPLOYEES, token);
+        return response != null && response.statusCode() == 200 && !response.body().contains("\"errors\"");
+    }
+
+    // Null while the server isn't accepting connections yet
+    private HttpResponse<String> post(URI uri, String body, String bearer) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        try {
+            return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+}
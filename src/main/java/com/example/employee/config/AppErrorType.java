@@ -0,0 +1,16 @@
+package com.example.employee.config;
+
+import graphql.ErrorClassification;
+
+/**
+ * Error classifications beyond Spring GraphQL's {@link org.springframework.graphql.execution.ErrorType},
+ * sent as {@code extensions.classification}.
+ */
+public enum AppErrorType implements ErrorClassification {
+
+    /**
+     * The request deadline passed or the client disconnected; retrying with a longer
+     * {@code X-Request-Timeout} or a smaller page may succeed.
+     */
+    TIMEOUT
+}
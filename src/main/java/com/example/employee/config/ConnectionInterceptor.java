@@ -0,0 +1,38 @@
+package com.example.employee.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+/**
+ * Runs around every call made on a JDBC {@link Connection} wrapped with {@link #wrap}. Exceptions
+ * thrown by the connection reach the interceptor and the caller as they were thrown.
+ */
+@FunctionalInterface
+interface ConnectionInterceptor {
+
+    Object intercept(Method method, Object[] args, Invocation invocation) throws Throwable;
+
+    static Connection wrap(Connection connection, ConnectionInterceptor interceptor) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionInterceptor.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> interceptor.intercept(method, args, () -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                }));
+    }
+
+    /**
+     * The intercepted call on the wrapped connection.
+     */
+    @FunctionalInterface
+    interface Invocation {
+
+        Object proceed() throws Throwable;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.employee.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a {@link ConnectionLimitingDataSource} in front of a Hikari pool, one semaphore per pool so
+ * the primary and each replica are limited independently. Permits default to the pool's
+ * {@code maximum-pool-size}; {@code app.virtual-threads.max-connections} overrides that for every pool.
+ */
+public class ConnectionLimits {
+
+    private final Integer maxConnections;
+    private final Duration acquireTimeout;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConnectionLimits(Integer maxConnections, Duration acquireTimeout, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.maxConnections = maxConnections;
+        this.acquireTimeout = acquireTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * {@code dataSource} behind its own semaphore, with permit gauges tagged {@code pool=name}.
+     */
+    public DataSource limit(String name, HikariDataSource dataSource) {
+        int permits = maxConnections != null ? maxConnections : dataSource.getMaximumPoolSize();
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(dataSource, permits, acquireTimeout);
+
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("jdbc.connections.permits.available", limited, ConnectionLimitingDataSource::getAvailablePermits)
+                    .description("Connection permits not currently held")
+                    .tag("pool", name)
+                    .register(registry);
+            Gauge.builder("jdbc.connections.permits.waiting", limited, ConnectionLimitingDataSource::getQueueLength)
+                    .description("Threads waiting for a connection permit")
+                    .tag("pool", name)
+                    .register(registry);
+        });
+        return limited;
+    }
+}
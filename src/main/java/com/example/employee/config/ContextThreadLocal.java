@@ -0,0 +1,38 @@
+package com.example.employee.config;
+
+import io.micrometer.context.ContextRegistry;
+
+/**
+ * A per-thread binding registered with context-propagation under {@code key}, so it follows
+ * controller methods onto executor threads and reactive pipelines.
+ */
+final class ContextThreadLocal<T> {
+
+    private final ThreadLocal<T> current = new ThreadLocal<>();
+
+    ContextThreadLocal(String key) {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(key, current::get, current::set, current::remove);
+    }
+
+    T get() {
+        return current.get();
+    }
+
+    /**
+     * Binds {@code value} to the current thread and returns the previous binding, which the
+     * caller restores with {@link #restore}.
+     */
+    T bind(T value) {
+        T previous = current.get();
+        current.set(value);
+        return previous;
+    }
+
+    void restore(T previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+}
@@ -9,36 +9,49 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
 
+    // Default users and their passwords
+    private static final Map<String, DefaultUser> DEFAULT_USERS = Map.of(
+            "admin", new DefaultUser("admin123", Role.ADMIN),
+            "employee", new DefaultUser("employee123", Role.EMPLOYEE)
+    );
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
     @Override
     public void run(String... args) {
-        // Create default admin user if not exists
-        if (!userRepository.existsByUsername("admin")) {
-            User admin = User.builder()
-                    .username("admin")
-                    .password(passwordEncoder.encode("admin123"))
-                    .role(Role.ADMIN)
-                    .build();
-            userRepository.save(admin);
-            log.info("Default admin user created - username: admin, password: admin123");
+        // One query on every start; the BCrypt hashing only happens for users that are missing
+        Set<String> existing = userRepository.findExistingUsernames(DEFAULT_USERS.keySet());
+        if (existing.size() == DEFAULT_USERS.size()) {
+            return;
         }
 
-        // Create default employee user if not exists
-        if (!userRepository.existsByUsername("employee")) {
-            User employee = User.builder()
-                    .username("employee")
-                    .password(passwordEncoder.encode("employee123"))
-                    .role(Role.EMPLOYEE)
-                    .build();
-            userRepository.save(employee);
-            log.info("Default employee user created - username: employee, password: employee123");
-        }
+        List<User> created = new ArrayList<>();
+        DEFAULT_USERS.forEach((username, user) -> {
+            if (!existing.contains(username)) {
+                created.add(User.builder()
+                        .username(username)
+                        .password(passwordEncoder.encode(user.password()))
+                        .role(user.role())
+                        .build());
+            }
+        });
+        userRepository.saveAll(created);
+
+        created.forEach(user -> log.info("Default {} user created - username: {}, password: {}",
+                user.getRole().name().toLowerCase(), user.getUsername(), DEFAULT_USERS.get(user.getUsername()).password()));
+    }
+
+    private record DefaultUser(String password, Role role) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.example.employee.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-replica routing, enabled with {@code app.datasource.routing.enabled=true}.
+ * The primary keeps the regular {@code spring.datasource} settings, each replica
+ * gets its own Hikari pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties primary, ReplicaRoutingProperties properties,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+
+        List<ReplicaRoutingProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaRoutingProperties.Replica replica = configured.get(i);
+
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.getUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.getPassword());
+            dataSource.setDriverClassName(primary.getDriverClassName());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setMinimumIdle(replica.getMinimumIdle());
+            dataSource.setReadOnly(true);
+            // Replica pools aren't beans, so Boot doesn't bind their metrics
+            meterRegistry.ifAvailable(registry ->
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+
+        return new ReplicaLagMonitor(replicas, properties.getMaxLag());
+    }
+
+    /**
+     * In virtual-thread mode, each pool gets its own connection limit, see {@link ConnectionLimits};
+     * the lag checks use the replica pools directly.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 ReplicaRoutingProperties properties,
+                                 ObjectProvider<ConnectionLimits> connectionLimits) {
+        ConnectionLimits limits = connectionLimits.getIfAvailable();
+        DataSource primary = limits != null
+                ? limits.limit(ReplicaRoutingDataSource.PRIMARY, primaryDataSource) : primaryDataSource;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primary);
+        replicaLagMonitor.getReplicas().forEach((name, replica) ->
+                targets.put(name, limits != null ? limits.limit(name, (HikariDataSource) replica) : replica));
+
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(replicaLagMonitor, properties.getReadYourWritesWindow());
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.employee.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Request deadlines, see {@link RequestDeadlineFilter}. The filter, interceptor and
+ * instrumentation are components; this puts {@link DeadlineDataSource} in front of the
+ * application's data source, replica routing included.
+ */
+@Configuration
+public class DeadlineConfig {
+
+    /**
+     * Order of the post-processor below. Other wrappers of {@code dataSource} run before it, so
+     * the deadline wrapper is always the outermost one.
+     */
+    static final int DATA_SOURCE_ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+        return new DeadlineDataSourcePostProcessor();
+    }
+
+    private static class DeadlineDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DeadlineDataSource(dataSource);
+        }
+
+        @Override
+        public int getOrder() {
+            return DATA_SOURCE_ORDER;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.employee.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Applies the {@link RequestDeadline} bound to the current thread to every statement created on
+ * its connections, so the driver cancels queries nobody is waiting for anymore. Statements
+ * created without a deadline, e.g. by scheduled jobs, are left alone.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    public DeadlineDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return applyingDeadlines(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return applyingDeadlines(super.getConnection(username, password));
+    }
+
+    private static Connection applyingDeadlines(Connection connection) {
+        return ConnectionInterceptor.wrap(connection, (method, args, invocation) -> {
+            RequestDeadline deadline = STATEMENT_FACTORIES.contains(method.getName())
+                    ? RequestDeadline.current() : null;
+            if (deadline != null && deadline.isExpired()) {
+                throw new SQLTimeoutException(deadline.describe());
+            }
+
+            Object result = invocation.proceed();
+            if (deadline != null && result instanceof Statement statement) {
+                deadline.apply(statement);
+            }
+            return result;
+        });
+    }
+}
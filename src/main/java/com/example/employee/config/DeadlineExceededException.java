@@ -0,0 +1,12 @@
+package com.example.employee.config;
+
+/**
+ * The {@link RequestDeadline} of the current request passed, or the client went away, before a
+ * data fetcher started. Reported to the client as a {@link AppErrorType#TIMEOUT} error.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,18 +1,74 @@
 package com.example.employee.config;
 
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.language.StringValue;
+import graphql.language.Value;
 import graphql.scalars.ExtendedScalars;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.idl.SchemaParser;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
 
+import java.util.Locale;
+
 @Configuration
 public class GraphQLConfig {
 
+    private static final String DEFER_DIRECTIVE =
+            "directive @defer(if: Boolean! = true, label: String) on FRAGMENT_SPREAD | INLINE_FRAGMENT";
+
+    // Opaque string on the wire, see EmployeeChangeService for what's inside
+    private static final GraphQLScalarType CURSOR = GraphQLScalarType.newScalar()
+            .name("Cursor")
+            .description("Opaque position in the employeeChanges feed")
+            .coercing(new Coercing<String, String>() {
+                @Override
+                public String serialize(Object dataFetcherResult, GraphQLContext context, Locale locale) {
+                    return dataFetcherResult.toString();
+                }
+
+                @Override
+                public String parseValue(Object input, GraphQLContext context, Locale locale) {
+                    if (input instanceof String cursor) {
+                        return cursor;
+                    }
+                    throw new CoercingParseValueException("Cursor must be a string");
+                }
+
+                @Override
+                public String parseLiteral(Value<?> input, CoercedVariables variables, GraphQLContext context,
+                                           Locale locale) {
+                    if (input instanceof StringValue cursor) {
+                        return cursor.getValue();
+                    }
+                    throw new CoercingParseLiteralException("Cursor must be a string");
+                }
+            })
+            .build();
+
     @Bean
     public RuntimeWiringConfigurer runtimeWiringConfigurer() {
         return wiringBuilder -> wiringBuilder
                 .scalar(ExtendedScalars.GraphQLLong)
                 .scalar(ExtendedScalars.Date)
-                .scalar(ExtendedScalars.DateTime);
+                .scalar(ExtendedScalars.DateTime)
+                .scalar(CURSOR);
+    }
+
+    // @defer is still experimental in graphql-java and not always part of the generated schema,
+    // see GraphQlIncrementalDeliveryFilter for how deferred results are delivered
+    @Bean
+    public GraphQlSourceBuilderCustomizer deferDirectiveCustomizer() {
+        return builder -> builder.configureTypeDefinitions(registry -> {
+            if (registry.getDirectiveDefinition("defer").isEmpty()) {
+                registry.merge(new SchemaParser().parse(DEFER_DIRECTIVE));
+            }
+        });
     }
-}
\ No newline at end of file
+}
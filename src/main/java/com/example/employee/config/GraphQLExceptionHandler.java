@@ -5,6 +5,7 @@ import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
 import org.springframework.graphql.execution.ErrorType;
 import org.springframework.security.access.AccessDeniedException;
@@ -13,13 +14,35 @@ import org.springframework.stereotype.Component;
 
 import jakarta.validation.ConstraintViolationException;
 
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
 @Component
 @Slf4j
 public class GraphQLExceptionHandler extends DataFetcherExceptionResolverAdapter {
 
+    // PostgreSQL's query_canceled, raised for statement timeouts and cancel requests
+    private static final String QUERY_CANCELED = "57014";
+
     @Override
     protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
-        log.error("GraphQL error occurred: ", ex);
+        if (isTimeout(ex)) {
+            RequestDeadline deadline = env.getGraphQlContext().get(RequestDeadline.class);
+            log.info("GraphQL request timed out at {}: {}", env.getExecutionStepInfo().getPath(), ex.toString());
+            return GraphqlErrorBuilder.newError()
+                    .errorType(AppErrorType.TIMEOUT)
+                    .message(deadline != null ? deadline.describe() : "Query timed out")
+                    .path(env.getExecutionStepInfo().getPath())
+                    .location(env.getField().getSourceLocation())
+                    .build();
+        }
+
+        // Rejected requests are the client's problem and can be frequent: no stack trace for those
+        if (isClientError(ex)) {
+            log.info("GraphQL request rejected at {}: {}", env.getExecutionStepInfo().getPath(), ex.toString());
+        } else {
+            log.error("GraphQL error occurred at {}: ", env.getExecutionStepInfo().getPath(), ex);
+        }
 
         if (ex instanceof AccessDeniedException) {
             return GraphqlErrorBuilder.newError()
@@ -82,4 +105,27 @@ public class GraphQLExceptionHandler extends DataFetcherExceptionResolverAdapter
                 .location(env.getField().getSourceLocation())
                 .build();
     }
-}
\ No newline at end of file
+
+    // Timeouts surface as Spring's, JPA's or Hibernate's QueryTimeoutException, or a raw SQLException
+    private static boolean isTimeout(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof jakarta.persistence.QueryTimeoutException
+                    || cause instanceof org.hibernate.QueryTimeoutException
+                    || cause instanceof SQLTimeoutException
+                    || (cause instanceof SQLException sqlException && QUERY_CANCELED.equals(sqlException.getSQLState()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isClientError(Throwable ex) {
+        return ex instanceof AccessDeniedException
+                || ex instanceof BadCredentialsException
+                || ex instanceof IllegalArgumentException
+                || ex instanceof ConstraintViolationException
+                || ex instanceof DataIntegrityViolationException;
+    }
+}
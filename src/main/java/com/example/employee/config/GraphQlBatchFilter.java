@@ -0,0 +1,269 @@
+package com.example.employee.config;
+
+import com.example.employee.config.GraphQlFilterExecutor.Budget;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import io.micrometer.context.ContextSnapshot;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.support.DefaultGraphQlRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Accepts a JSON array of GraphQL operations in one POST to the GraphQL endpoint and answers with
+ * the array of their results, in request order. Everything else is passed on unchanged.
+ * <p>
+ * Runs after Spring Security, so the whole batch shares one JWT pass; the security context and
+ * MDC are handed to each operation through context-propagation. Batches of queries run
+ * concurrently; a batch containing a mutation runs one operation after the other, in order.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+@Slf4j
+public class GraphQlBatchFilter extends OncePerRequestFilter {
+
+    private static final TypeReference<List<Map<String, Object>>> BATCH = new TypeReference<>() {
+    };
+
+    private final GraphQlFilterExecutor graphQlFilterExecutor;
+    private final ObjectMapper objectMapper;
+
+    private final String graphqlPath;
+    private final int maxOperations;
+    private final int parallelism;
+    private final Duration timeout;
+
+    public GraphQlBatchFilter(GraphQlFilterExecutor graphQlFilterExecutor,
+                              ObjectMapper objectMapper,
+                              @Value("${spring.graphql.path:/graphql}") String graphqlPath,
+                              @Value("${app.graphql.batch.max-operations:20}") int maxOperations,
+                              @Value("${app.graphql.batch.parallelism:4}") int parallelism,
+                              @Value("${app.graphql.batch.timeout:30s}") Duration timeout) {
+        this.graphQlFilterExecutor = graphQlFilterExecutor;
+        this.objectMapper = objectMapper;
+        this.graphqlPath = graphqlPath;
+        this.maxOperations = maxOperations;
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !graphqlPath.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        byte[] body = request.getInputStream().readAllBytes();
+        if (!isArray(body)) {
+            // The body has been consumed, hand it on for the regular single-operation handler
+            filterChain.doFilter(new CachedBodyRequest(request, body), response);
+            return;
+        }
+
+        List<Map<String, Object>> operations;
+        try {
+            operations = objectMapper.readValue(body, BATCH);
+        } catch (JsonProcessingException ex) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid GraphQL batch: " + ex.getOriginalMessage());
+            return;
+        }
+        if (operations.isEmpty() || operations.size() > maxOperations) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    "A GraphQL batch must contain between 1 and " + maxOperations + " operations");
+            return;
+        }
+
+        boolean hasMutation = operations.stream().anyMatch(this::isMutation);
+        ContextSnapshot snapshot = graphQlFilterExecutor.capture();
+
+        // The whole batch shares one budget: the batch timeout, or what's left of the request deadline
+        Budget budget = Budget.of(request, timeout);
+
+        Flux<Map<String, Object>> results = Flux.fromIterable(operations)
+                .index()
+                .flatMapSequential(operation -> execute(request, operation.getT2(), operation.getT1(), snapshot, budget),
+                        hasMutation ? 1 : parallelism);
+
+        // Every operation ends within the budget, with its result or a timeout error
+        List<Map<String, Object>> responses = results.collectList().block();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        graphQlFilterExecutor.writeJson(response, responses);
+    }
+
+    private Mono<Map<String, Object>> execute(HttpServletRequest request, Map<String, Object> operation, long index,
+                                              ContextSnapshot snapshot, Budget budget) {
+        return graphQlFilterExecutor.execute(toWebGraphQlRequest(request, operation), snapshot, budget)
+                .map(result -> result.toMap())
+                .onErrorResume(TimeoutException.class, ex -> {
+                    log.warn("GraphQL batch operation {} timed out after {} ms", index, budget.limit().toMillis());
+                    budget.cancel();
+                    return Mono.just(budget.timeoutError("GraphQL batch"));
+                })
+                .onErrorResume(ex -> {
+                    log.warn("GraphQL batch operation {} failed: {}", index, ex.toString());
+                    return Mono.just(Map.of("errors", List.of(Map.of(
+                            "message", String.valueOf(ex.getMessage()),
+                            "extensions", Map.of("classification", ErrorType.INTERNAL_ERROR.name())))));
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @SuppressWarnings("unchecked")
+    static WebGraphQlRequest toWebGraphQlRequest(HttpServletRequest request, Map<String, Object> operation) {
+        HttpHeaders headers = new HttpHeaders();
+        Collections.list(request.getHeaderNames()).forEach(name ->
+                headers.addAll(name, Collections.list(request.getHeaders(name))));
+
+        // Every operation of a batch shares the deadline of the HTTP request, see RequestDeadlineFilter
+        Map<String, Object> attributes = new HashMap<>();
+        if (request.getAttribute(RequestDeadline.ATTRIBUTE) != null) {
+            attributes.put(RequestDeadline.ATTRIBUTE, request.getAttribute(RequestDeadline.ATTRIBUTE));
+        }
+
+        return new WebGraphQlRequest(
+                URI.create(request.getRequestURL().toString()),
+                headers,
+                null,
+                new InetSocketAddress(request.getRemoteAddr(), request.getRemotePort()),
+                attributes,
+                new DefaultGraphQlRequest(
+                        (String) operation.get("query"),
+                        (String) operation.get("operationName"),
+                        (Map<String, Object>) operation.get("variables"),
+                        (Map<String, Object>) operation.get("extensions")),
+                UUID.randomUUID().toString(),
+                request.getLocale());
+    }
+
+    // Decides whether the batch can run concurrently; unparseable operations fail on their own later
+    private boolean isMutation(Map<String, Object> operation) {
+        if (!(operation.get("query") instanceof String query)) {
+            return false;
+        }
+        try {
+            Document document = Parser.parse(query);
+            Object operationName = operation.get("operationName");
+            return document.getDefinitionsOfType(OperationDefinition.class).stream()
+                    .filter(definition -> operationName == null || operationName.equals(definition.getName()))
+                    .anyMatch(definition -> definition.getOperation() != OperationDefinition.Operation.QUERY);
+        } catch (InvalidSyntaxException ex) {
+            return false;
+        }
+    }
+
+    private static boolean isArray(byte[] body) {
+        for (byte b : body) {
+            if (!Character.isWhitespace(b)) {
+                return b == '[';
+            }
+        }
+        return false;
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is in memory, so it is available and read right away
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException ex) {
+                        listener.onError(ex);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.employee.config;
+
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fails data fetchers that would start after the {@link RequestDeadline} of their operation has
+ * passed, so an expired operation stops issuing work instead of resolving the rest of its
+ * fields. Property fetchers are left alone, they're free.
+ */
+@Component
+public class GraphQlDeadlineInstrumentation extends SimplePerformantInstrumentation {
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) {
+            return dataFetcher;
+        }
+
+        return environment -> {
+            RequestDeadline deadline = environment.getGraphQlContext().get(RequestDeadline.class);
+            if (deadline != null) {
+                deadline.check();
+            }
+            return dataFetcher.get(environment);
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.employee.config;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.WebSocketGraphQlRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hands the {@link RequestDeadline} of the HTTP request to the GraphQL execution: through the
+ * GraphQLContext for {@link GraphQlDeadlineInstrumentation}, and through the Reactor context,
+ * which Spring GraphQL restores as ThreadLocals around each controller method, for
+ * {@link DeadlineDataSource}. Operations over WebSocket, subscriptions in particular, have no
+ * deadline.
+ */
+@Component
+public class GraphQlDeadlineInterceptor implements WebGraphQlInterceptor {
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (request instanceof WebSocketGraphQlRequest) {
+            return chain.next(request);
+        }
+
+        RequestDeadline deadline = request.getAttributes().get(RequestDeadline.ATTRIBUTE) instanceof RequestDeadline attribute
+                ? attribute : RequestDeadline.current();
+        if (deadline == null) {
+            return chain.next(request);
+        }
+
+        request.configureExecutionInput((input, builder) -> {
+            input.getGraphQLContext().put(RequestDeadline.class, deadline);
+            return input;
+        });
+        return chain.next(request)
+                .contextWrite(context -> context.put(RequestDeadline.CONTEXT_KEY, deadline));
+    }
+}
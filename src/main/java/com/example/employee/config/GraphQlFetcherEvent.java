@@ -0,0 +1,44 @@
+package com.example.employee.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one non-trivial data fetcher call, i.e. a resolver method, emitted
+ * by {@link GraphQlMetricsInstrumentation}. Asynchronous fetchers end when their result completes.
+ */
+@Name("com.example.employee.GraphQLFetcher")
+@Label("GraphQL Data Fetcher")
+@Category({"Employee API", "GraphQL"})
+@Description("Call of a GraphQL resolver method")
+@StackTrace(false)
+public class GraphQlFetcherEvent extends Event {
+
+    @Label("Operation Name")
+    public String operationName;
+
+    @Label("Field")
+    @Description("Parent type and field, e.g. Query.employees")
+    public String field;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Role")
+    public String role;
+
+    @Label("Rows")
+    @Description("Items returned, counting the content of a page")
+    public int rows;
+
+    @Label("SQL Statements")
+    @Description("Statements the operation ran while this fetcher was in progress")
+    public int sqlStatements;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,141 @@
+package com.example.employee.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs GraphQL requests for the servlet filters that answer them without Spring GraphQL's HTTP
+ * handler: GET with validators, batches and incremental delivery.
+ * <p>
+ * The caller's security context and MDC are handed on through context-propagation. Every wait is
+ * bounded by a {@link Budget}, the filter's own timeout or what's left of the {@link RequestDeadline},
+ * whichever ends first. A request that runs out of it fails with a {@link TimeoutException}, which
+ * the filters answer with {@link Budget#timeoutError}; {@link Budget#cancel} stops the statements
+ * still running for it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GraphQlFilterExecutor {
+
+    private final WebGraphQlHandler webGraphQlHandler;
+    private final ObjectMapper objectMapper;
+    private final ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+
+    /**
+     * Captures the context of the filter thread, to be restored wherever the request runs.
+     */
+    public ContextSnapshot capture() {
+        return snapshotFactory.captureAll();
+    }
+
+    /**
+     * The request's result, or a {@link TimeoutException} once the budget is used up. The time
+     * left is read on subscription, so requests queued behind others get what remains by then.
+     */
+    public Mono<WebGraphQlResponse> execute(WebGraphQlRequest request, ContextSnapshot snapshot, Budget budget) {
+        return Mono.defer(() -> {
+                    long remainingNanos = budget.remainingNanos();
+                    if (remainingNanos <= 0) {
+                        // Not started at all, e.g. queued behind an operation that used up the time
+                        return Mono.error(new TimeoutException());
+                    }
+                    return webGraphQlHandler.handleRequest(request).timeout(Duration.ofNanos(remainingNanos));
+                })
+                .contextWrite(snapshot::updateContext);
+    }
+
+    /**
+     * Runs the request and waits for it. Returns null if the budget ran out, after cancelling the
+     * request's statements; the caller answers with {@link Budget#timeoutError} then.
+     */
+    public WebGraphQlResponse executeAndWait(WebGraphQlRequest request, Budget budget, String label) {
+        try {
+            // Completes or times out within the budget, so no timeout of its own is needed here
+            return execute(request, capture(), budget).block();
+        } catch (RuntimeException ex) {
+            if (!(Exceptions.unwrap(ex) instanceof TimeoutException)) {
+                throw ex;
+            }
+            log.warn("{} timed out after {} ms", label, budget.limit().toMillis());
+            budget.cancel();
+            return null;
+        }
+    }
+
+    /**
+     * Items of {@code publisher}, failing with a {@link TimeoutException} as soon as the budget is
+     * used up, wherever the stream is at that point.
+     */
+    public <T> Flux<T> withinBudget(Publisher<T> publisher, ContextSnapshot snapshot, Budget budget) {
+        return Flux.from(publisher)
+                .timeout(Mono.defer(() -> Mono.delay(budget.remaining())), item -> Mono.delay(budget.remaining()))
+                .contextWrite(snapshot::updateContext);
+    }
+
+    /**
+     * Writes {@code body} as the JSON response; the status and any caching headers are set by the caller.
+     */
+    public void writeJson(HttpServletResponse response, Object body) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Time a filter may spend on a request, fixed when the request arrives.
+     */
+    public record Budget(Duration limit, long endNanos, RequestDeadline deadline) {
+
+        public static Budget of(HttpServletRequest request, Duration timeout) {
+            RequestDeadline deadline = (RequestDeadline) request.getAttribute(RequestDeadline.ATTRIBUTE);
+            long nanos = deadline != null ? Math.min(timeout.toNanos(), deadline.remainingNanos()) : timeout.toNanos();
+            return new Budget(Duration.ofNanos(nanos), System.nanoTime() + nanos, deadline);
+        }
+
+        public long remainingNanos() {
+            return endNanos - System.nanoTime();
+        }
+
+        public Duration remaining() {
+            return Duration.ofNanos(Math.max(0, remainingNanos()));
+        }
+
+        // Also cancels the statements of any other operation still running under the same deadline
+        public void cancel() {
+            if (deadline != null) {
+                deadline.cancel();
+            }
+        }
+
+        /**
+         * Result reported for a request that ran out of time, e.g. "GraphQL batch timeout of 30000 ms exceeded".
+         */
+        public Map<String, Object> timeoutError(String label) {
+            return Map.of("errors", List.of(Map.of(
+                    "message", label + " timeout of " + limit.toMillis() + " ms exceeded",
+                    "extensions", Map.of("classification", AppErrorType.TIMEOUT.name()))));
+        }
+    }
+}
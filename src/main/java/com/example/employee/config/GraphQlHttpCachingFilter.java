@@ -0,0 +1,347 @@
+package com.example.employee.config;
+
+import com.example.employee.config.GraphQlFilterExecutor.Budget;
+import com.example.employee.model.Employee;
+import com.example.employee.service.EmployeeService;
+import com.example.employee.service.EmployeeService.DataVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.language.ArrayValue;
+import graphql.language.BooleanValue;
+import graphql.language.Document;
+import graphql.language.EnumValue;
+import graphql.language.Field;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.ObjectValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.StringValue;
+import graphql.language.VariableReference;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Serves GraphQL queries over GET, with HTTP validators so unchanged results can be revalidated
+ * with a 304 instead of being resolved and transferred again.
+ * <p>
+ * The ETag combines the caller's roles, a hash of the query text, operation name and variables,
+ * and a cheap change marker per root field, read before the query runs: profile and attendance
+ * versions of the employee for {@code employee(id)}, count, attendance versions and latest
+ * {@code updatedAt} of the matching employees for {@code employees} and {@code employeeStats}.
+ * Last-Modified is the latest change among them. Queries with other root fields, {@code employee(id)}
+ * for a profile the caller may not view, and responses with errors are answered without
+ * validators, so a 304 never tells anything the query itself wouldn't. Responses vary by caller
+ * and must always be revalidated, so they're only cacheable privately.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 3)
+@Slf4j
+public class GraphQlHttpCachingFilter extends OncePerRequestFilter {
+
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private final GraphQlFilterExecutor graphQlFilterExecutor;
+    private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+
+    private final String graphqlPath;
+    private final Duration timeout;
+
+    public GraphQlHttpCachingFilter(GraphQlFilterExecutor graphQlFilterExecutor,
+                                    EmployeeService employeeService,
+                                    ObjectMapper objectMapper,
+                                    @Value("${spring.graphql.path:/graphql}") String graphqlPath,
+                                    @Value("${app.graphql.get.timeout:30s}") Duration timeout) {
+        this.graphQlFilterExecutor = graphQlFilterExecutor;
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.graphqlPath = graphqlPath;
+        this.timeout = timeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || !graphqlPath.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String query = request.getParameter("query");
+        if (query == null || query.isBlank()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing query parameter");
+            return;
+        }
+
+        Map<String, Object> operation = new HashMap<>();
+        operation.put("query", query);
+        operation.put("operationName", request.getParameter("operationName"));
+        try {
+            operation.put("variables", parseJsonParameter(request, "variables"));
+            operation.put("extensions", parseJsonParameter(request, "extensions"));
+        } catch (JsonProcessingException ex) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid JSON parameter: " + ex.getOriginalMessage());
+            return;
+        }
+
+        OperationDefinition definition = findOperation(query, request.getParameter("operationName"));
+        if (definition != null && definition.getOperation() != OperationDefinition.Operation.QUERY) {
+            // GET must be safe, mutations and subscriptions stay on POST and WebSocket
+            response.setHeader(HttpHeaders.ALLOW, HttpMethod.POST.name());
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Only queries can be sent with GET");
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> variables = operation.get("variables") != null
+                ? (Map<String, Object>) operation.get("variables") : Map.of();
+        List<DataVersion> versions = definition != null ? currentVersions(definition, variables) : null;
+
+        String etag = null;
+        long lastModified = -1;
+        if (versions != null) {
+            etag = etag(versions, operation);
+            lastModified = lastModified(versions);
+            if (isNotModified(request, etag, lastModified)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                writeValidators(response, etag, lastModified);
+                return;
+            }
+        }
+
+        Budget budget = Budget.of(request, timeout);
+        WebGraphQlResponse graphQlResponse = graphQlFilterExecutor.executeAndWait(
+                GraphQlBatchFilter.toWebGraphQlRequest(request, operation), budget, "GraphQL GET");
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (etag != null && graphQlResponse != null && graphQlResponse.getErrors().isEmpty()) {
+            writeValidators(response, etag, lastModified);
+        } else {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        }
+        graphQlFilterExecutor.writeJson(response, graphQlResponse != null
+                ? graphQlResponse.toMap() : budget.timeoutError("GraphQL GET"));
+    }
+
+    // Null if any root field's result can't be versioned cheaply
+    private List<DataVersion> currentVersions(OperationDefinition definition, Map<String, Object> variables) {
+        List<DataVersion> versions = new ArrayList<>();
+        try {
+            for (Selection<?> selection : definition.getSelectionSet().getSelections()) {
+                if (!(selection instanceof Field field)) {
+                    return null;
+                }
+
+                DataVersion version;
+                switch (field.getName()) {
+                    case "__typename" -> {
+                        continue;
+                    }
+                    case "employee" -> {
+                        Long id = toLong(argument(field, "id", variables));
+                        version = id != null && canView(id) ? employeeService.getEmployeeVersion(id) : null;
+                    }
+                    case "employees", "employeeStats" -> {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> filter = (Map<String, Object>) argument(field, "filter", variables);
+                        version = employeeService.getDirectoryVersion(filter);
+                    }
+                    default -> version = null;
+                }
+
+                if (version == null) {
+                    return null;
+                }
+                versions.add(version);
+            }
+        } catch (RuntimeException ex) {
+            // Invalid arguments; the query itself will report them
+            log.debug("No HTTP validators for GraphQL GET: {}", ex.toString());
+            return null;
+        }
+        return versions.isEmpty() ? null : versions;
+    }
+
+    // Same rule as the employee query: admins see every profile, everyone else only their own or unowned ones
+    private boolean canView(Long id) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            return false;
+        }
+        if (auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            return true;
+        }
+
+        Employee employee;
+        try {
+            employee = employeeService.getEmployeeById(id);
+        } catch (RuntimeException ex) {
+            // Unknown ids get no validators either, so they look the same as foreign ones
+            return false;
+        }
+        return employee.getUser() == null || employee.getUser().getUsername().equals(auth.getName());
+    }
+
+    private String etag(List<DataVersion> versions, Map<String, Object> operation) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String roles = auth == null ? "anonymous" : auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+
+        // Different selections or variables over the same data are different representations
+        String request;
+        try {
+            Map<String, Object> parts = new LinkedHashMap<>();
+            parts.put("query", operation.get("query"));
+            parts.put("operationName", operation.get("operationName"));
+            parts.put("variables", operation.get("variables"));
+            request = objectMapper.writeValueAsString(parts);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        String key = roles + "|" + DigestUtils.md5DigestAsHex(request.getBytes(StandardCharsets.UTF_8))
+                + "|" + versions.stream().map(DataVersion::tag).collect(Collectors.joining("|"));
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static long lastModified(List<DataVersion> versions) {
+        return versions.stream()
+                .map(DataVersion::lastModified)
+                .filter(time -> time != null)
+                .max(LocalDateTime::compareTo)
+                .map(time -> time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(-1L);
+    }
+
+    // If-None-Match takes precedence over If-Modified-Since, as in RFC 9110
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            String opaque = etag.substring(2);
+            for (String candidate : ifNoneMatch.split(",")) {
+                candidate = candidate.trim();
+                if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(opaque)
+                        || (candidate.startsWith("W/") && candidate.substring(2).equals(opaque))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP dates have second precision
+        return ifModifiedSince >= 0 && lastModified >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static void writeValidators(HttpServletResponse response, String etag, long lastModified) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (lastModified >= 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+    }
+
+    private Map<String, Object> parseJsonParameter(HttpServletRequest request, String name) throws JsonProcessingException {
+        String json = request.getParameter(name);
+        return json == null || json.isBlank() ? null : objectMapper.readValue(json, JSON_OBJECT);
+    }
+
+    private static OperationDefinition findOperation(String query, String operationName) {
+        try {
+            Document document = Parser.parse(query);
+            List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+            if (operationName == null) {
+                return operations.size() == 1 ? operations.get(0) : null;
+            }
+            return operations.stream()
+                    .filter(definition -> operationName.equals(definition.getName()))
+                    .findFirst()
+                    .orElse(null);
+        } catch (InvalidSyntaxException ex) {
+            // Reported by the execution
+            return null;
+        }
+    }
+
+    private static Object argument(Field field, String name, Map<String, Object> variables) {
+        return field.getArguments().stream()
+                .filter(argument -> argument.getName().equals(name))
+                .findFirst()
+                .map(argument -> value(argument.getValue(), variables))
+                .orElse(null);
+    }
+
+    private static Object value(graphql.language.Value<?> value, Map<String, Object> variables) {
+        if (value instanceof VariableReference reference) {
+            return variables.get(reference.getName());
+        } else if (value instanceof StringValue string) {
+            return string.getValue();
+        } else if (value instanceof IntValue integer) {
+            BigInteger number = integer.getValue();
+            return number.bitLength() < Integer.SIZE ? (Object) number.intValue() : (Object) number.longValue();
+        } else if (value instanceof FloatValue decimal) {
+            return decimal.getValue().doubleValue();
+        } else if (value instanceof BooleanValue bool) {
+            return bool.isValue();
+        } else if (value instanceof EnumValue enumValue) {
+            return enumValue.getName();
+        } else if (value instanceof ObjectValue object) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            object.getObjectFields().forEach(field -> fields.put(field.getName(), value(field.getValue(), variables)));
+            return fields;
+        } else if (value instanceof ArrayValue array) {
+            return array.getValues().stream().map(element -> value(element, variables)).toList();
+        }
+        return null;
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return value instanceof String string ? Long.valueOf(string) : null;
+    }
+}
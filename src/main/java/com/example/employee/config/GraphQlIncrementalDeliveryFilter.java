@@ -0,0 +1,171 @@
+package com.example.employee.config;
+
+import com.example.employee.config.GraphQlFilterExecutor.Budget;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.incremental.IncrementalExecutionResult;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Delivers {@code @defer} results incrementally to clients that accept {@code multipart/mixed}
+ * (the {@code deferSpec=20220824} format used by Apollo and graphql-java): the initial result is
+ * written and flushed as soon as it's complete, then one part per resolved deferred fragment.
+ * <p>
+ * Spring GraphQL's HTTP handler only knows single results, so these requests are executed here,
+ * with graphql-java's experimental incremental support switched on for them only. Other clients
+ * get deferred fragments inlined into one ordinary response.
+ * <p>
+ * The initial result and the deferred parts must all be delivered within
+ * {@code app.graphql.incremental.timeout} or the request deadline, whichever ends first. Running
+ * out before the initial result gives a {@code TIMEOUT} error response; running out mid-stream
+ * ends the stream with a last part carrying that error.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 2)
+@Slf4j
+public class GraphQlIncrementalDeliveryFilter extends OncePerRequestFilter {
+
+    private static final MediaType MULTIPART_MIXED = MediaType.parseMediaType("multipart/mixed");
+    private static final String CONTENT_TYPE = "multipart/mixed; boundary=\"-\"; deferSpec=20220824";
+    private static final byte[] PART_HEADER =
+            "\r\n---\r\nContent-Type: application/json; charset=utf-8\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "\r\n-----\r\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final String LABEL = "GraphQL incremental delivery";
+
+    private static final TypeReference<Map<String, Object>> OPERATION = new TypeReference<>() {
+    };
+
+    private final GraphQlFilterExecutor graphQlFilterExecutor;
+    private final ObjectMapper objectMapper;
+
+    private final String graphqlPath;
+    private final Duration timeout;
+
+    public GraphQlIncrementalDeliveryFilter(GraphQlFilterExecutor graphQlFilterExecutor,
+                                            ObjectMapper objectMapper,
+                                            @Value("${spring.graphql.path:/graphql}") String graphqlPath,
+                                            @Value("${app.graphql.incremental.timeout:60s}") Duration timeout) {
+        this.graphQlFilterExecutor = graphQlFilterExecutor;
+        this.objectMapper = objectMapper;
+        this.graphqlPath = graphqlPath;
+        this.timeout = timeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod())
+                || !graphqlPath.equals(request.getRequestURI().substring(request.getContextPath().length()))) {
+            return true;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept == null || MediaType.parseMediaTypes(accept).stream()
+                .noneMatch(mediaType -> mediaType.isCompatibleWith(MULTIPART_MIXED) && !mediaType.isWildcardType());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Map<String, Object> operation;
+        try {
+            operation = objectMapper.readValue(request.getInputStream(), OPERATION);
+        } catch (JsonProcessingException ex) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid GraphQL request: " + ex.getOriginalMessage());
+            return;
+        }
+
+        WebGraphQlRequest graphQlRequest = GraphQlBatchFilter.toWebGraphQlRequest(request, operation);
+        graphQlRequest.configureExecutionInput((input, builder) -> {
+            input.getGraphQLContext().put(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT, true);
+            return input;
+        });
+
+        // The initial result and every deferred part share one budget
+        Budget budget = Budget.of(request, timeout);
+        WebGraphQlResponse graphQlResponse = graphQlFilterExecutor.executeAndWait(graphQlRequest, budget, LABEL);
+        if (graphQlResponse == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            graphQlFilterExecutor.writeJson(response, budget.timeoutError(LABEL));
+            return;
+        }
+
+        ExecutionResult result = graphQlResponse.getExecutionResult();
+        if (!(result instanceof IncrementalExecutionResult incremental)) {
+            // Nothing was deferred
+            graphQlFilterExecutor.writeJson(response, graphQlResponse.toMap());
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(CONTENT_TYPE);
+        OutputStream output = response.getOutputStream();
+
+        try {
+            writePart(output, incremental.toSpecification());
+            try {
+                graphQlFilterExecutor.withinBudget(incremental.getIncrementalItemPublisher(),
+                                graphQlFilterExecutor.capture(), budget)
+                        .doOnNext(part -> writePart(output, part.toSpecification()))
+                        .blockLast();
+            } catch (RuntimeException ex) {
+                if (!(Exceptions.unwrap(ex) instanceof TimeoutException)) {
+                    throw ex;
+                }
+                log.warn("{} timed out after {} ms", LABEL, budget.limit().toMillis());
+                budget.cancel();
+                // The status is sent already, so the timeout ends the stream as its last part
+                Map<String, Object> last = new LinkedHashMap<>(budget.timeoutError(LABEL));
+                last.put("hasNext", false);
+                writePart(output, last);
+            }
+        } catch (UncheckedIOException ex) {
+            // The client went away, stop the deferred work still running for it
+            budget.cancel();
+            throw ex.getCause();
+        }
+
+        output.write(END);
+        output.flush();
+    }
+
+    private void writePart(OutputStream output, Map<String, Object> part) {
+        try {
+            output.write(PART_HEADER);
+            output.write(objectMapper.writeValueAsBytes(part));
+            output.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
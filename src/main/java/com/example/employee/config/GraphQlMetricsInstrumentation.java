@@ -0,0 +1,259 @@
+package com.example.employee.config;
+
+import graphql.ExecutionResult;
+import graphql.execution.DataFetcherResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Records, per GraphQL operation name, the {@code graphql.operation} timer and the number of SQL
+ * statements Hibernate ran for it ({@code graphql.operation.sql.statements}), and per schema field
+ * with a non-trivial data fetcher the {@code graphql.field} timer.
+ * <p>
+ * Operations running more statements than {@code app.metrics.n-plus-one-threshold} are logged and
+ * counted in {@code graphql.operation.n_plus_one}: for the page sizes this API serves, that many
+ * statements almost always means a lazy association loaded once per row.
+ * <p>
+ * The same measurements, with the caller's role and row counts added, are emitted as
+ * {@link GraphQlOperationEvent} and {@link GraphQlFetcherEvent} Flight Recorder events. They cost
+ * an allocation and an enabled check while no recording asks for them.
+ */
+@Component
+@Slf4j
+public class GraphQlMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    // Operation names are chosen by clients, so only a bounded number of well-formed ones become tags
+    private static final Pattern OPERATION_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]{0,63}");
+    private static final int MAX_OPERATION_NAMES = 200;
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    private final Set<String> operationNames = ConcurrentHashMap.newKeySet();
+
+    public GraphQlMetricsInstrumentation(MeterRegistry meterRegistry,
+                                         @Value("${app.metrics.n-plus-one-threshold:20}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new OperationState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+                                                                  InstrumentationState state) {
+        OperationState operation = (OperationState) state;
+        String name = operationTag(parameters.getOperation());
+        operation.name = parameters.getOperation() != null ? parameters.getOperation() : "anonymous";
+        operation.role = currentRole();
+        long start = System.nanoTime();
+
+        GraphQlOperationEvent event = new GraphQlOperationEvent();
+        event.begin();
+
+        return SimpleInstrumentationContext.whenCompleted((result, ex) -> {
+            boolean failed = ex != null || (result != null && !result.getErrors().isEmpty());
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.operationName = operation.name;
+                event.operationType = operation.type;
+                event.role = operation.role;
+                event.rows = operation.rows.get();
+                event.sqlStatements = operation.sqlStatements.get();
+                event.errors = ex != null ? 1 : result != null ? result.getErrors().size() : 0;
+                event.commit();
+            }
+
+            Timer.builder("graphql.operation")
+                    .description("GraphQL operation latency")
+                    .tag("operation", name)
+                    .tag("type", operation.type)
+                    .tag("outcome", failed ? "error" : "success")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            int statements = operation.sqlStatements.get();
+            DistributionSummary.builder("graphql.operation.sql.statements")
+                    .description("SQL statements executed per GraphQL operation")
+                    .tag("operation", name)
+                    .register(meterRegistry)
+                    .record(statements);
+
+            if (statements > nPlusOneThreshold) {
+                Counter.builder("graphql.operation.n_plus_one")
+                        .description("GraphQL operations exceeding the SQL statement threshold")
+                        .tag("operation", name)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("GraphQL operation {} executed {} SQL statements (threshold {}), likely an N+1 query",
+                        name, statements, nPlusOneThreshold);
+            }
+        });
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        ((OperationState) state).type = parameters.getExecutionContext().getOperationDefinition()
+                .getOperation().name().toLowerCase();
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        OperationState operation = (OperationState) state;
+        AtomicInteger sqlStatements = operation.sqlStatements;
+
+        // Property fetchers still run inside the counting scope (lazy loads), but aren't timed
+        if (parameters.isTrivialDataFetcher()) {
+            return environment -> {
+                AtomicInteger previous = SqlStatementCounter.bind(sqlStatements);
+                try {
+                    return dataFetcher.get(environment);
+                } finally {
+                    SqlStatementCounter.restore(previous);
+                }
+            };
+        }
+
+        String typeName = parameters.getExecutionStepInfo().getObjectType().getName();
+        String fieldName = parameters.getField().getName();
+        boolean rootField = parameters.getExecutionStepInfo().getPath().getLevel() == 1;
+        Timer timer = Timer.builder("graphql.field")
+                .description("GraphQL data fetcher latency")
+                .tag("type", typeName)
+                .tag("field", fieldName)
+                .register(meterRegistry);
+
+        return environment -> {
+            AtomicInteger previous = SqlStatementCounter.bind(sqlStatements);
+            long start = System.nanoTime();
+            int statementsBefore = sqlStatements.get();
+            GraphQlFetcherEvent event = new GraphQlFetcherEvent();
+            event.begin();
+            try {
+                Object value = dataFetcher.get(environment);
+                if (value instanceof CompletionStage<?> stage) {
+                    return stage.whenComplete((result, ex) -> {
+                        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        completed(event, operation, rootField, typeName + "." + fieldName, environment, result,
+                                ex != null, sqlStatements.get() - statementsBefore);
+                    });
+                }
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                completed(event, operation, rootField, typeName + "." + fieldName, environment, value,
+                        false, sqlStatements.get() - statementsBefore);
+                return value;
+            } catch (RuntimeException ex) {
+                completed(event, operation, rootField, typeName + "." + fieldName, environment, null,
+                        true, sqlStatements.get() - statementsBefore);
+                throw ex;
+            } finally {
+                SqlStatementCounter.restore(previous);
+            }
+        };
+    }
+
+    private static void completed(GraphQlFetcherEvent event, OperationState operation, boolean rootField, String field,
+                                  DataFetchingEnvironment environment, Object value, boolean failed, int sqlStatements) {
+        // Row counts are only needed for the events, skip them while no recording is running
+        if (!event.isEnabled()) {
+            return;
+        }
+        int rows = rowCount(value);
+        if (rootField) {
+            operation.rows.addAndGet(rows);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.operationName = operation.name;
+            event.field = field;
+            event.path = environment.getExecutionStepInfo().getPath().toString();
+            event.role = operation.role;
+            event.rows = rows;
+            event.sqlStatements = sqlStatements;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    // A page counts its content, a list its elements, anything else one row
+    private static int rowCount(Object value) {
+        if (value instanceof DataFetcherResult<?> result) {
+            value = result.getData();
+        }
+        if (value instanceof Map<?, ?> map && map.get("content") instanceof Collection<?> content) {
+            return content.size();
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return value != null ? 1 : 0;
+    }
+
+    private static String currentRole() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth.getAuthorities().isEmpty()) {
+            return "anonymous";
+        }
+        return auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private String operationTag(String operationName) {
+        if (operationName == null) {
+            return "anonymous";
+        }
+        if (!OPERATION_NAME.matcher(operationName).matches()) {
+            return "other";
+        }
+        if (operationNames.contains(operationName)
+                || (operationNames.size() < MAX_OPERATION_NAMES && operationNames.add(operationName))) {
+            return operationName;
+        }
+        return "other";
+    }
+
+    private static class OperationState implements InstrumentationState {
+        private final AtomicInteger sqlStatements = new AtomicInteger();
+        private final AtomicInteger rows = new AtomicInteger();
+        private volatile String type = "unknown";
+        private volatile String name = "anonymous";
+        private volatile String role = "anonymous";
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.employee.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one GraphQL operation, emitted by {@link GraphQlMetricsInstrumentation}.
+ * Disabled unless a recording enables it, see {@code FlightRecordingService}.
+ */
+@Name("com.example.employee.GraphQLOperation")
+@Label("GraphQL Operation")
+@Category({"Employee API", "GraphQL"})
+@Description("Execution of one GraphQL operation")
+@StackTrace(false)
+public class GraphQlOperationEvent extends Event {
+
+    @Label("Operation Name")
+    public String operationName;
+
+    @Label("Operation Type")
+    public String operationType;
+
+    @Label("Role")
+    @Description("Roles of the caller, or anonymous")
+    public String role;
+
+    @Label("Rows")
+    @Description("Items returned by the root fields, counting the content of a page")
+    public int rows;
+
+    @Label("SQL Statements")
+    public int sqlStatements;
+
+    @Label("Errors")
+    public int errors;
+}
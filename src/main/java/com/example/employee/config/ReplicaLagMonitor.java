@@ -0,0 +1,84 @@
+package com.example.employee.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically measures replication lag on every replica and keeps the list of
+ * replicas that are safe to read from. Until the first check completes, no replica
+ * is considered healthy and all reads go to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final String LAG_QUERY =
+            "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final Map<String, DataSource> replicas;
+    private final Duration maxLag;
+
+    private volatile List<String> healthyReplicas = Collections.emptyList();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, Duration maxLag) {
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval:2s}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            long lagMillis = measureLag(replica.getKey(), replica.getValue());
+            if (lagMillis >= 0 && lagMillis <= maxLag.toMillis()) {
+                healthy.add(replica.getKey());
+            } else if (lagMillis >= 0) {
+                log.warn("Replica {} is lagging {} ms behind primary, routing reads to primary", replica.getKey(), lagMillis);
+            }
+        }
+
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    private long measureLag(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (Exception ex) {
+            log.warn("Replica {} is unavailable: {}", name, ex.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.employee.config;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a GraphQL request must be answered, created by {@link RequestDeadlineFilter}.
+ * <p>
+ * The deadline bound to the current thread is applied as the query timeout of every JDBC
+ * statement by {@link DeadlineDataSource}, and checked before each data fetcher by
+ * {@link GraphQlDeadlineInstrumentation}; the binding is a {@link ContextThreadLocal}. Cancelling
+ * the deadline, e.g. when the client disconnects, also cancels the statements still running for it.
+ */
+public final class RequestDeadline {
+
+    public static final String ATTRIBUTE = RequestDeadline.class.getName();
+
+    static final String CONTEXT_KEY = "app.request-deadline";
+
+    private static final ContextThreadLocal<RequestDeadline> CURRENT = new ContextThreadLocal<>(CONTEXT_KEY);
+
+    private final Duration timeout;
+    private final long deadlineNanos;
+    // Every statement created under this deadline; cancelling one that has finished is a no-op
+    private final Queue<Statement> statements = new ConcurrentLinkedQueue<>();
+    private volatile boolean cancelled;
+
+    public RequestDeadline(Duration timeout) {
+        this.timeout = timeout;
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    // See ContextThreadLocal#bind
+    static RequestDeadline bind(RequestDeadline deadline) {
+        return CURRENT.bind(deadline);
+    }
+
+    static void restore(RequestDeadline previous) {
+        CURRENT.restore(previous);
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public long remainingNanos() {
+        return cancelled ? 0 : Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() == 0;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException(describe());
+        }
+    }
+
+    String describe() {
+        return cancelled
+                ? "Request cancelled by the client"
+                : "Request deadline of " + timeout.toMillis() + " ms exceeded";
+    }
+
+    /**
+     * Sets the statement's query timeout to the time left, rounded up to whole seconds as JDBC
+     * requires, and keeps it for {@link #cancel}.
+     */
+    void apply(Statement statement) throws SQLException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos() + TimeUnit.SECONDS.toNanos(1) - 1));
+        statement.setQueryTimeout((int) Math.min(seconds, Integer.MAX_VALUE));
+        statements.add(statement);
+        if (cancelled) {
+            cancelQuietly(statement);
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+        Statement statement;
+        while ((statement = statements.poll()) != null) {
+            cancelQuietly(statement);
+        }
+    }
+
+    private static void cancelQuietly(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException ex) {
+            // Already closed or finished
+        }
+    }
+}
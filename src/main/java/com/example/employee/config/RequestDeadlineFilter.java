@@ -0,0 +1,107 @@
+package com.example.employee.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Starts the {@link RequestDeadline} of every request to the GraphQL endpoint: the default
+ * timeout, or a shorter or longer one the client asks for in {@code X-Request-Timeout}
+ * (milliseconds), capped at the maximum.
+ * <p>
+ * The deadline is bound to the request thread and stored as a request attribute for
+ * {@link GraphQlDeadlineInterceptor}. Responses completed asynchronously cancel it when the
+ * container reports an error, typically a client disconnect, or times out.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Timeout";
+
+    private final String graphqlPath;
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+
+    public RequestDeadlineFilter(@Value("${spring.graphql.path:/graphql}") String graphqlPath,
+                                 @Value("${app.graphql.deadline.default:10s}") Duration defaultTimeout,
+                                 @Value("${app.graphql.deadline.max:30s}") Duration maxTimeout) {
+        this.graphqlPath = graphqlPath;
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !graphqlPath.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        RequestDeadline deadline = new RequestDeadline(timeout(request.getHeader(HEADER)));
+        request.setAttribute(RequestDeadline.ATTRIBUTE, deadline);
+
+        RequestDeadline previous = RequestDeadline.bind(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.restore(previous);
+        }
+
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    deadline.cancel();
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    log.debug("GraphQL request aborted, cancelling its statements: {}", String.valueOf(event.getThrowable()));
+                    deadline.cancel();
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        }
+    }
+
+    private Duration timeout(String requested) {
+        if (requested == null || requested.isBlank()) {
+            return defaultTimeout;
+        }
+        try {
+            long millis = Long.parseLong(requested.trim());
+            if (millis > 0) {
+                return millis < maxTimeout.toMillis() ? Duration.ofMillis(millis) : maxTimeout;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through to the default
+        }
+        return defaultTimeout;
+    }
+}
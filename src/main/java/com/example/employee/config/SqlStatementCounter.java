@@ -0,0 +1,33 @@
+package com.example.employee.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares on behalf of the GraphQL operation bound to the
+ * current thread, see {@link GraphQlMetricsInstrumentation}. The binding is a
+ * {@link ContextThreadLocal}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ContextThreadLocal<AtomicInteger> CURRENT = new ContextThreadLocal<>("app.sql-statement-counter");
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+
+    // See ContextThreadLocal#bind
+    static AtomicInteger bind(AtomicInteger counter) {
+        return CURRENT.bind(counter);
+    }
+
+    static void restore(AtomicInteger previous) {
+        CURRENT.restore(previous);
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.employee.config;
+
+import com.example.employee.model.Role;
+import com.example.employee.service.AttendancePartitionMaintainer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads a synthetic directory when the {@code datagen} profile is active, e.g.
+ * {@code --spring.profiles.active=datagen --app.datagen.employees=1000000}.
+ * <p>
+ * Rows are streamed with {@code COPY ... FROM STDIN}, employees first, then a login for every
+ * {@code login-every}-th employee and weekday attendance for up to {@code attendance-years}
+ * back. Classes and subjects follow a skewed distribution like a real directory. Generation is
+ * seeded, so two runs with the same settings produce the same data; employees already in the
+ * table count towards the target, so a second run only tops up.
+ */
+@Component
+@Profile("datagen")
+@Order(1)
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    // Class name, relative weight, subjects from most to least common
+    private static final List<ClassProfile> CLASSES = List.of(
+            new ClassProfile("Engineering", 35, List.of("Java", "SQL", "Kotlin", "Go", "Kubernetes", "React", "Python", "Rust")),
+            new ClassProfile("Sales", 20, List.of("Negotiation", "CRM", "Forecasting", "Presentation", "Excel")),
+            new ClassProfile("Operations", 10, List.of("Logistics", "Excel", "Lean", "SQL", "Procurement")),
+            new ClassProfile("Marketing", 12, List.of("SEO", "Content", "Analytics", "Design", "Social Media")),
+            new ClassProfile("Finance", 10, List.of("Excel", "Accounting", "Forecasting", "SQL", "Tax")),
+            new ClassProfile("HR", 8, List.of("Recruiting", "Payroll", "Labor Law", "Onboarding")),
+            new ClassProfile("Legal", 5, List.of("Contracts", "Compliance", "Labor Law", "Privacy"))
+    );
+    private static final int TOTAL_WEIGHT = CLASSES.stream().mapToInt(ClassProfile::weight).sum();
+
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Carol", "David", "Emma", "Farid", "Grace", "Hiro", "Ines", "James", "Kavya", "Liam",
+            "Maria", "Noah", "Olga", "Priya", "Quinn", "Rahul", "Sofia", "Tomas", "Uma", "Victor", "Wei", "Yara", "Zoe"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Patel", "Garcia", "Kim", "Nguyen", "Müller", "Rossi", "Silva", "Cohen", "Okafor", "Tanaka",
+            "Novak", "Ivanova", "Dubois", "Larsen", "Haddad", "Murphy", "Sato", "Lopez", "Shah"
+    };
+
+    private static final int COPY_BUFFER_CHARS = 1 << 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AttendancePartitionMaintainer partitionMaintainer;
+    private final PasswordEncoder passwordEncoder;
+    private final CacheManager cacheManager;
+
+    @Value("${app.datagen.employees:100000}")
+    private int targetEmployees;
+
+    @Value("${app.datagen.attendance-years:3}")
+    private int attendanceYears;
+
+    @Value("${app.datagen.login-every:100}")
+    private int loginEvery;
+
+    @Value("${app.datagen.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) {
+        Long existing = jdbcTemplate.queryForObject("SELECT count(*) FROM employees", Long.class);
+        int missing = (int) Math.max(0, targetEmployees - (existing != null ? existing : 0));
+        if (missing == 0) {
+            log.info("Data generation skipped, {} employees already present", existing);
+            return;
+        }
+
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusYears(attendanceYears);
+
+        // COPY into the parent routes rows to their partition; without one they'd all land in the default partition
+        for (YearMonth month = YearMonth.from(firstDay); !month.isAfter(YearMonth.from(today)); month = month.plusMonths(1)) {
+            partitionMaintainer.ensurePartition(month);
+        }
+
+        SplittableRandom random = new SplittableRandom(seed + (existing != null ? existing : 0));
+        String passwordHash = passwordEncoder.encode("password123");
+
+        long[] counts = transactionTemplate.execute(status -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) FROM employees", Long.class);
+
+            long employees = copy("COPY employees (name, age, class_name, subjects, email, phone, created_at, updated_at, version) " +
+                    "FROM STDIN (FORMAT csv)", rows -> writeEmployees(rows, missing, maxId, random, today));
+
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM employees WHERE id > ? ORDER BY id", Long.class, maxId);
+
+            long users = copy("COPY users (username, password, role, employee_id, created_at) FROM STDIN (FORMAT csv)", rows -> {
+                for (int i = 0; i < ids.size(); i += loginEvery) {
+                    rows.row("emp" + ids.get(i), passwordHash, Role.EMPLOYEE.name(), ids.get(i), LocalDateTime.now());
+                }
+            });
+
+            // Not one change log entry per generated mark: the new employees are logged as
+            // upserted, and their current state includes the attendance
+            jdbcTemplate.execute("SET LOCAL app.skip_attendance_change_log = 'on'");
+            long attendance = copy("COPY employee_attendance (employee_id, attendance_date, present) FROM STDIN (FORMAT csv)",
+                    rows -> writeAttendance(rows, ids, random, firstDay, today));
+
+            return new long[]{employees, users, attendance};
+        });
+
+        jdbcTemplate.execute("ANALYZE employees");
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE employee_attendance");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        log.info("Generated {} employees, {} logins (password123) and {} attendance marks in {} s",
+                counts[0], counts[1], counts[2], Duration.ofNanos(System.nanoTime() - start).toSeconds());
+    }
+
+    private void writeEmployees(CopyRows rows, int count, long firstId, SplittableRandom random, LocalDate today)
+            throws SQLException {
+        for (int i = 1; i <= count; i++) {
+            ClassProfile profile = pickClass(random);
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            LocalDateTime createdAt = today.minusDays(random.nextInt(365 * attendanceYears + 1)).atTime(9, 0);
+
+            rows.row(
+                    first + " " + last,
+                    22 + random.nextInt(44),
+                    profile.name(),
+                    pgArray(pickSubjects(profile, random)),
+                    // Unique across runs, the ids generated for this run start after firstId
+                    (first + "." + last + "." + (firstId + i) + "@example.com").toLowerCase(),
+                    String.format("555-%04d", random.nextInt(10000)),
+                    createdAt,
+                    createdAt,
+                    0
+            );
+        }
+    }
+
+    private void writeAttendance(CopyRows rows, List<Long> ids, SplittableRandom random, LocalDate firstDay, LocalDate today)
+            throws SQLException {
+        for (Long id : ids) {
+            // Everyone starts somewhere in the window and has their own attendance rate
+            LocalDate hired = firstDay.plusDays(random.nextInt((int) (today.toEpochDay() - firstDay.toEpochDay())));
+            double presence = 0.80 + random.nextDouble() * 0.19;
+
+            for (LocalDate day = hired; day.isBefore(today); day = day.plusDays(1)) {
+                if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                    rows.row(id, day, random.nextDouble() < presence);
+                }
+            }
+        }
+    }
+
+    private static ClassProfile pickClass(SplittableRandom random) {
+        int pick = random.nextInt(TOTAL_WEIGHT);
+        for (ClassProfile profile : CLASSES) {
+            pick -= profile.weight();
+            if (pick < 0) {
+                return profile;
+            }
+        }
+        return CLASSES.get(0);
+    }
+
+    // One to four subjects, the first ones of the class much more likely (roughly Zipf)
+    private static Set<String> pickSubjects(ClassProfile profile, SplittableRandom random) {
+        Set<String> subjects = new LinkedHashSet<>();
+        int wanted = 1 + random.nextInt(4);
+        while (subjects.size() < Math.min(wanted, profile.subjects().size())) {
+            int index = (int) (profile.subjects().size() * Math.pow(random.nextDouble(), 2.5));
+            subjects.add(profile.subjects().get(index));
+        }
+        return subjects;
+    }
+
+    private static String pgArray(Set<String> values) {
+        return "{" + String.join(",", values.stream().map(value -> "\"" + value + "\"").toList()) + "}";
+    }
+
+    private long copy(String sql, CopyWriter writer) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyRows rows = new CopyRows(copyIn(connection, sql));
+            try {
+                writer.write(rows);
+                return rows.finish();
+            } catch (SQLException | RuntimeException ex) {
+                rows.cancel();
+                throw ex;
+            }
+        });
+    }
+
+    private static CopyIn copyIn(Connection connection, String sql) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    }
+
+    @FunctionalInterface
+    private interface CopyWriter {
+        void write(CopyRows rows) throws SQLException;
+    }
+
+    /**
+     * Formats rows as CSV and streams them to the server in chunks of about a megabyte.
+     */
+    private static final class CopyRows {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+
+        private CopyRows(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                appendCsv(values[i]);
+            }
+            buffer.append('\n');
+
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        long finish() throws SQLException {
+            flush();
+            return copyIn.endCopy();
+        }
+
+        void cancel() throws SQLException {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        private void appendCsv(Object value) {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+                buffer.append(text);
+            } else {
+                buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    private record ClassProfile(String name, int weight, List<String> subjects) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.employee.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode, enabled with {@code spring.threads.virtual.enabled=true}.
+ * <p>
+ * Boot then runs Tomcat requests, {@code @Scheduled} jobs and blocking GraphQL controller methods
+ * on virtual threads. This adds what that needs on our side: each Hikari pool hands out connections
+ * through its own {@link ConnectionLimitingDataSource}, see {@link ConnectionLimits}, and
+ * carrier-thread pinning is reported as a metric by {@link VirtualThreadPinningMonitor}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static ConnectionLimits connectionLimits(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        Integer maxConnections = environment.getProperty("app.virtual-threads.max-connections", Integer.class);
+        Duration acquireTimeout = environment.getProperty("app.virtual-threads.connection-acquire-timeout",
+                Duration.class, Duration.ofSeconds(30));
+        return new ConnectionLimits(maxConnections, acquireTimeout, meterRegistry);
+    }
+
+    /**
+     * Limits the application's own Hikari pool. With replica routing, {@code dataSource} is the
+     * routing proxy instead and {@link DataSourceRoutingConfig} limits each pool behind it.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(ObjectProvider<ConnectionLimits> connectionLimits) {
+        return new ConnectionLimitingPostProcessor(connectionLimits);
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry, Environment environment) {
+        Duration threshold = environment.getProperty("app.virtual-threads.pinning-threshold",
+                Duration.class, Duration.ofMillis(20));
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+    }
+
+    // Runs before DeadlineConfig's post-processor, which would otherwise hide the pool behind its wrapper
+    private static class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ConnectionLimits> connectionLimits;
+
+        ConnectionLimitingPostProcessor(ObjectProvider<ConnectionLimits> connectionLimits) {
+            this.connectionLimits = connectionLimits;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof HikariDataSource dataSource)) {
+                return bean;
+            }
+            return connectionLimits.getObject().limit(beanName, dataSource);
+        }
+
+        @Override
+        public int getOrder() {
+            return DeadlineConfig.DATA_SOURCE_ORDER - 1;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.employee.controller;
+
+import com.example.employee.service.EmployeeExportService;
+import com.example.employee.service.EmployeeExportService.ExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/employees")
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeExportController {
+
+    private final EmployeeExportService exportService;
+
+    /**
+     * Streams the (optionally filtered) employee directory as NDJSON or CSV.
+     * Filter parameters match the GraphQL EmployeeFilter input.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportEmployees(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) String className,
+            @RequestParam(required = false) String subject,
+            @RequestParam(defaultValue = "false") boolean includeAttendance,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate attendanceFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate attendanceTo,
+            HttpServletResponse response
+    ) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+        }
+
+        Map<String, Object> filter = new HashMap<>();
+        putIfPresent(filter, "name", name);
+        putIfPresent(filter, "minAge", minAge);
+        putIfPresent(filter, "maxAge", maxAge);
+        putIfPresent(filter, "className", className);
+        putIfPresent(filter, "subject", subject);
+
+        boolean csv = exportFormat == ExportFormat.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"employees." + (csv ? "csv" : "ndjson") + "\"");
+
+        exportService.exportEmployees(filter, exportFormat, includeAttendance || attendanceFrom != null || attendanceTo != null,
+                attendanceFrom, attendanceTo, response.getOutputStream());
+    }
+
+    private static void putIfPresent(Map<String, Object> filter, String key, Object value) {
+        if (value != null) {
+            filter.put(key, value);
+        }
+    }
+}
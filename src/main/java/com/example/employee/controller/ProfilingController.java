@@ -0,0 +1,100 @@
+package com.example.employee.controller;
+
+import com.example.employee.service.FlightRecordingService;
+import jdk.jfr.Recording;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RestController
+@RequestMapping("/api/admin/profiling")
+@RequiredArgsConstructor
+@Slf4j
+public class ProfilingController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    /**
+     * Records for {@code seconds} with the GraphQL operation and fetcher events enabled and
+     * answers with the .jfr file, to be opened in JDK Mission Control or {@code jfr print}.
+     * <p>
+     * No thread waits for the recording: it stops on its own after {@code seconds}, and a delayed
+     * task dumps it and completes the response. The dump is deleted once the response is done,
+     * however it ends.
+     */
+    @PostMapping("/jfr")
+    @PreAuthorize("hasRole('ADMIN')")
+    public DeferredResult<ResponseEntity<Resource>> record(
+            @RequestParam(defaultValue = "30") int seconds,
+            @RequestParam(defaultValue = "default") String settings
+    ) throws IOException {
+        Duration duration = Duration.ofSeconds(seconds);
+        Recording recording = flightRecordingService.start(duration, settings);
+
+        // The timeout only guards against the dump hanging
+        DeferredResult<ResponseEntity<Resource>> result = new DeferredResult<>(duration.plusMinutes(1).toMillis());
+        AtomicReference<Path> dump = new AtomicReference<>();
+        // Also runs after a timeout or a client that went away; the dump may not exist yet then
+        result.onCompletion(() -> deleteDump(dump));
+
+        CompletableFuture.delayedExecutor(duration.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            try {
+                Path file = flightRecordingService.finish(recording);
+                dump.set(file);
+                ResponseEntity<Resource> response = ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                        .body(new FileSystemResource(file));
+                if (!result.setResult(response)) {
+                    // Timed out or failed already, nobody is going to read it
+                    deleteDump(dump);
+                }
+            } catch (IOException | RuntimeException ex) {
+                result.setErrorResult(ex);
+            }
+        });
+        return result;
+    }
+
+    private static void deleteDump(AtomicReference<Path> dump) {
+        Path file = dump.getAndSet(null);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete flight recording dump {}: {}", file, ex.getMessage());
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> conflict(IllegalStateException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// AgeBucket.java
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgeBucket {
+    private Integer minAge;
+    private Integer maxAge;
+    private Long count;
+}
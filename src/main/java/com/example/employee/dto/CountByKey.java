@@ -0,0 +1,16 @@
+package com.example.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// CountByKey.java
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CountByKey {
+    private String key;
+    private Long count;
+}
@@ -0,0 +1,17 @@
+package com.example.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// DeleteResult.java
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeleteResult {
+    // Number of distinct ids asked for; null when deleting by filter
+    private Integer requested;
+    private Long deleted;
+}
@@ -0,0 +1,24 @@
+package com.example.employee.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sortable employee fields, mirrored by the GraphQL EmployeeSortField enum.
+ * Every field is backed by an index on (column, id), id being the tiebreaker
+ * that keeps paging stable, see the indexes on {@link com.example.employee.model.Employee}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum EmployeeSortField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    AGE("age", "age"),
+    CLASS_NAME("className", "class_name"),
+    EMAIL("email", "email"),
+    CREATED_AT("createdAt", "created_at"),
+    UPDATED_AT("updatedAt", "updated_at");
+
+    private final String property;
+    private final String column;
+}
@@ -0,0 +1,21 @@
+package com.example.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// EmployeeStats.java
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeStats {
+    private Long totalEmployees;
+    private Double averageAge;
+    private List<CountByKey> byClassName;
+    private List<AgeBucket> ageHistogram;
+    private List<CountByKey> subjectPopularity;
+}
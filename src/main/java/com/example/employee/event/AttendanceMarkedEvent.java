@@ -0,0 +1,6 @@
+package com.example.employee.event;
+
+/**
+ * Published by EmployeeService after an attendance mark is stored.
+ */
+public record AttendanceMarkedEvent(Long employeeId, String employeeName, String className, String date, Boolean present) {}
@@ -0,0 +1,8 @@
+package com.example.employee.event;
+
+import com.example.employee.model.Employee;
+
+/**
+ * Published by EmployeeService after an employee or its attendance is modified.
+ */
+public record EmployeeChangedEvent(Employee employee) {}
@@ -6,8 +6,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.OptimisticLock;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -16,9 +22,16 @@ import java.util.Map;
 import java.util.stream.Collectors; // Needed for the new getter
 
 @Entity
+// One (column, id) index per EmployeeSortField, plus class_name filter + sort combinations
 @Table(name = "employees", indexes = {
-        @Index(name = "idx_employee_name", columnList = "name"),
-        @Index(name = "idx_employee_class", columnList = "class_name")
+        @Index(name = "idx_employee_name_id", columnList = "name, id"),
+        @Index(name = "idx_employee_age_id", columnList = "age, id"),
+        @Index(name = "idx_employee_email_id", columnList = "email, id"),
+        @Index(name = "idx_employee_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_employee_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_employee_class_id", columnList = "class_name, id"),
+        @Index(name = "idx_employee_class_name_id", columnList = "class_name, name, id"),
+        @Index(name = "idx_employee_class_age_id", columnList = "class_name, age, id")
 })
 @Data
 @NoArgsConstructor
@@ -39,20 +52,26 @@ public class Employee {
     @Column(name = "class_name", nullable = false)
     private String className;
 
+    // Stored inline as a Postgres text[] (see db/migration/V2__subjects_array.sql): loaded with the row, and
+    // compared by value on flush, so changing subjects is a single-row UPDATE
     @Builder.Default // Added @Builder.Default back for safety
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "employee_subjects", joinColumns = @JoinColumn(name = "employee_id"))
-    @Column(name = "subject")
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "subjects", nullable = false, columnDefinition = "text[] default '{}'")
     private List<String> subjects = new ArrayList<>();
 
     // RENAMED FIELD: Changed 'attendance' to 'attendanceData' to avoid conflict
     // with the custom getter and reflect that this is the raw map data.
+    // Partitioned by month and archived after a while, see AttendancePartitionMaintainer.
+    // Attendance rows are written one at a time by EmployeeRepository.upsertAttendance and
+    // don't conflict with each other, so they are kept out of the employee version check
     @Builder.Default // Added @Builder.Default back for safety
+    @OptimisticLock(excluded = true)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "employee_attendance", joinColumns = @JoinColumn(name = "employee_id"))
     @MapKeyColumn(name = "attendance_date")
     @Column(name = "present")
-    private Map<String, Boolean> attendanceData = new HashMap<>();
+    private Map<LocalDate, Boolean> attendanceData = new HashMap<>();
 
     @Column(unique = true)
     private String email;
@@ -67,6 +86,10 @@ public class Employee {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToOne(mappedBy = "employee", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private User user;
 
@@ -78,12 +101,12 @@ public class Employee {
         if (attendanceData == null) return new ArrayList<>();
 
         return attendanceData.entrySet().stream()
-                .map(entry -> new AttendanceRecord(entry.getKey(), entry.getValue()))
+                .map(entry -> new AttendanceRecord(entry.getKey().toString(), entry.getValue()))
                 .collect(Collectors.toList());
     }
 
     // Expose the raw map data for use in service logic (like markAttendance)
-    public Map<String, Boolean> getAttendanceData() {
+    public Map<LocalDate, Boolean> getAttendanceData() {
         return attendanceData;
     }
 
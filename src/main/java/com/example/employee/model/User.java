@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
 
@@ -33,8 +35,10 @@ public class User {
     @Column(nullable = false, length = 20)
     private Role role;
 
+    // Deleting an employee deletes its login as well, also for set-based deletes
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", unique = true)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Employee employee;
 
     @CreationTimestamp
@@ -1,26 +1,49 @@
 package com.example.employee.repository;
 
 import com.example.employee.model.Employee;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
 
-    @EntityGraph(attributePaths = {"subjects"})
-    @Query("SELECT e FROM Employee e WHERE e.id = :id")
-    Optional<Employee> findByIdWithSubjects(@Param("id") Long id);
+    Optional<Employee> findByEmail(String email);
 
-    @EntityGraph(attributePaths = {"subjects"})
-    Page<Employee> findAll(Pageable pageable);
+    // Subjects are a column of the row; the user is fetched in the same query since the inverse
+    // one-to-one can't be proxied and would otherwise cost one SELECT per employee
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.user WHERE e.id IN :ids")
+    List<Employee> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
 
-    Optional<Employee> findByEmail(String email);
+    // One statement; attendance rows and linked users go with it through ON DELETE CASCADE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM employees WHERE id IN (:ids)", nativeQuery = true)
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Touches only the (employee, date) row, so concurrent marks for one employee never conflict
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO employee_attendance (employee_id, attendance_date, present) " +
+            "VALUES (:employeeId, :date, :present) " +
+            "ON CONFLICT (employee_id, attendance_date) DO UPDATE SET present = EXCLUDED.present",
+            nativeQuery = true)
+    int upsertAttendance(@Param("employeeId") Long employeeId,
+                         @Param("date") LocalDate date,
+                         @Param("present") Boolean present);
+
+    // Attendance is part of the employee as served, so its HTTP validators must change with it.
+    // Kept out of employees: marks never lock the employee row or conflict with profile updates.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO employee_attendance_version AS v (employee_id, version, updated_at) " +
+            "VALUES (:employeeId, 1, now()) " +
+            "ON CONFLICT (employee_id) DO UPDATE SET version = v.version + 1, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int bumpAttendanceVersion(@Param("employeeId") Long employeeId);
 }
\ No newline at end of file
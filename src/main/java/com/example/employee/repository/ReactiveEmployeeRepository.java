@@ -0,0 +1,164 @@
+package com.example.employee.repository;
+
+import com.example.employee.dto.EmployeeSortField;
+import com.example.employee.model.Employee;
+import com.example.employee.model.User;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only R2DBC access to employees, their subjects and their attendance, see
+ * {@link com.example.employee.config.R2dbcReadConfig}. Filters mean exactly what they mean in
+ * {@code EmployeeService.createSpecification}, and sorting follows {@link EmployeeSortField} with
+ * id as tiebreaker, so both read paths return the same pages.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app.r2dbc", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveEmployeeRepository {
+
+    private static final String COLUMNS =
+            "e.id, e.name, e.age, e.class_name, e.subjects, e.email, e.phone, e.created_at, e.updated_at, e.version";
+
+    private final DatabaseClient r2dbcDatabaseClient;
+
+    public Mono<Page<Employee>> findAll(Map<String, Object> filter, int page, int size,
+                                        EmployeeSortField sortBy, Sort.Direction sortDir, boolean withAttendance) {
+        Where where = where(filter);
+
+        String direction = sortDir == Sort.Direction.ASC ? "ASC" : "DESC";
+        String orderBy = "e." + sortBy.getColumn() + " " + direction;
+        if (sortBy != EmployeeSortField.ID) {
+            orderBy += ", e.id " + direction;
+        }
+
+        Mono<List<Employee>> content = where.bind(r2dbcDatabaseClient.sql(
+                        "SELECT " + COLUMNS + " FROM employees e" + where.sql() +
+                        " ORDER BY " + orderBy + " LIMIT :limit OFFSET :offset"))
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(row -> toEmployee(row, null))
+                .all()
+                .collectList()
+                .flatMap(employees -> withAttendance ? withAttendance(employees) : Mono.just(employees));
+
+        Mono<Long> total = where.bind(r2dbcDatabaseClient.sql("SELECT count(*) FROM employees e" + where.sql()))
+                .map(row -> row.get(0, Long.class))
+                .one();
+
+        return Mono.zip(content, total)
+                .map(result -> new PageImpl<>(result.getT1(), PageRequest.of(page, size), result.getT2()));
+    }
+
+    /**
+     * The employee with its owning user's username, which is all the ownership check needs.
+     */
+    public Mono<Employee> findById(Long id, boolean withAttendance) {
+        return r2dbcDatabaseClient.sql("SELECT " + COLUMNS + ", u.username AS owner " +
+                        "FROM employees e LEFT JOIN users u ON u.employee_id = e.id WHERE e.id = :id")
+                .bind("id", id)
+                .map(row -> toEmployee(row, row.get("owner", String.class)))
+                .one()
+                .flatMap(employee -> withAttendance
+                        ? withAttendance(List.of(employee)).map(employees -> employees.get(0))
+                        : Mono.just(employee));
+    }
+
+    // One query for the attendance of all given employees
+    private Mono<List<Employee>> withAttendance(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return Mono.just(employees);
+        }
+
+        Map<Long, Employee> byId = employees.stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+
+        return r2dbcDatabaseClient.sql("SELECT employee_id, attendance_date, present FROM employee_attendance " +
+                        "WHERE employee_id = ANY(:ids)")
+                .bind("ids", byId.keySet().toArray(new Long[0]))
+                .map(row -> {
+                    byId.get(row.get("employee_id", Long.class)).getAttendanceData()
+                            .put(row.get("attendance_date", LocalDate.class), row.get("present", Boolean.class));
+                    return true;
+                })
+                .all()
+                .then(Mono.just(employees));
+    }
+
+    private static Employee toEmployee(Readable row, String owner) {
+        String[] subjects = row.get("subjects", String[].class);
+
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .age(row.get("age", Integer.class))
+                .className(row.get("class_name", String.class))
+                .subjects(subjects != null ? new ArrayList<>(Arrays.asList(subjects)) : new ArrayList<>())
+                .email(row.get("email", String.class))
+                .phone(row.get("phone", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .version(row.get("version", Long.class))
+                .user(owner != null ? User.builder().username(owner).build() : null)
+                .build();
+    }
+
+    // Mirrors EmployeeService.createSpecification
+    private static Where where(Map<String, Object> filter) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> binds = new LinkedHashMap<>();
+
+        if (filter != null) {
+            if (filter.containsKey("name")) {
+                conditions.add("lower(e.name) LIKE :name");
+                binds.put("name", "%" + filter.get("name").toString().toLowerCase() + "%");
+            }
+            if (filter.containsKey("minAge")) {
+                conditions.add("e.age >= :minAge");
+                binds.put("minAge", Integer.parseInt(filter.get("minAge").toString()));
+            }
+            if (filter.containsKey("maxAge")) {
+                conditions.add("e.age <= :maxAge");
+                binds.put("maxAge", Integer.parseInt(filter.get("maxAge").toString()));
+            }
+            if (filter.containsKey("className")) {
+                conditions.add("e.class_name = :className");
+                binds.put("className", filter.get("className").toString());
+            }
+            if (filter.containsKey("subject")) {
+                conditions.add("e.subjects @> ARRAY[:subject]::text[]");
+                binds.put("subject", filter.get("subject").toString());
+            }
+        }
+
+        String sql = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        return new Where(sql, binds);
+    }
+
+    private record Where(String sql, Map<String, Object> binds) {
+        DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+            for (Map.Entry<String, Object> bind : binds.entrySet()) {
+                spec = spec.bind(bind.getKey(), bind.getValue());
+            }
+            return spec;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.employee.resolver;
 
+import com.example.employee.dto.DeleteResult;
 import com.example.employee.dto.EmployeeInput;
 import com.example.employee.model.Employee;
 import com.example.employee.model.Role;
@@ -16,8 +17,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-// Removed unused import: import java.util.List;
 // Removed unused import: import java.util.stream.Collectors;
 
 @Controller
@@ -32,7 +33,7 @@ public class EmployeeMutationResolver {
 
     @MutationMapping
     public Map<String, Object> login(@Argument String username, @Argument String password) {
-        log.info("Mutation: login for user: {}", username);
+        log.debug("Mutation: login for user: {}", username);
 
         String token = authService.login(username, password);
         User user = authService.getUserByUsername(username);
@@ -88,7 +89,7 @@ public class EmployeeMutationResolver {
     @MutationMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public Map<String, Object> updateEmployee(@Argument Long id, @Argument EmployeeInput input) {
-        log.info("Mutation: updateEmployee with id: {}", id);
+        log.debug("Mutation: updateEmployee with id: {}", id);
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream()
@@ -112,6 +113,20 @@ public class EmployeeMutationResolver {
         return employeeService.deleteEmployee(id);
     }
 
+    @MutationMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public DeleteResult deleteEmployees(@Argument List<Long> ids, @Argument Map<String, Object> filter) {
+        log.info("Mutation: deleteEmployees with ids: {}, filter: {}", ids, filter);
+
+        if ((ids == null) == (filter == null)) {
+            throw new IllegalArgumentException("Exactly one of ids or filter must be given");
+        }
+
+        return ids != null
+                ? employeeService.deleteEmployees(ids)
+                : employeeService.deleteEmployeesMatching(filter);
+    }
+
     @MutationMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public Map<String, Object> markAttendance(
@@ -119,7 +134,7 @@ public class EmployeeMutationResolver {
             @Argument String date,
             @Argument Boolean present
     ) {
-        log.info("Mutation: markAttendance for employee: {}, date: {}", employeeId, date);
+        log.debug("Mutation: markAttendance for employee: {}, date: {}", employeeId, date);
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream()
@@ -154,7 +169,7 @@ public class EmployeeMutationResolver {
         // FIX: Rely on the new getAttendance() method in the Employee model
         // which now returns List<AttendanceRecord>.
         // Spring GraphQL handles the List<Record> to List<Map> serialization.
-        employeeMap.put("attendance", employee.getAttendance());
+        employeeMap.put("attendance", employeeService.getAttendance(employee));
 
         return employeeMap;
     }
@@ -1,19 +1,35 @@
 package com.example.employee.resolver;
 
+import com.example.employee.dto.EmployeeSortField;
+import com.example.employee.dto.EmployeeStats;
+import com.example.employee.model.AttendanceRecord;
 import com.example.employee.model.Employee;
 import com.example.employee.model.User;
+import com.example.employee.repository.ReactiveEmployeeRepository;
 import com.example.employee.service.AuthService;
+import com.example.employee.service.EmployeeChangeService;
 import com.example.employee.service.EmployeeService;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.ErrorType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,23 +40,114 @@ import java.util.stream.Collectors;
 @Slf4j
 public class EmployeeQueryResolver {
 
+    private static final String ENTITY_KEY = "entity";
+
     private final EmployeeService employeeService;
     private final AuthService authService;
+    private final EmployeeChangeService employeeChangeService;
+    private final ObjectProvider<ReactiveEmployeeRepository> reactiveEmployeeRepository;
 
     @QueryMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
-    public Map<String, Object> employees(
+    public Mono<Map<String, Object>> employees(
             @Argument Map<String, Object> filter,
             @Argument int page,
             @Argument int size,
-            @Argument String sortBy,
-            @Argument String sortDir
+            @Argument EmployeeSortField sortBy,
+            @Argument Sort.Direction sortDir,
+            DataFetchingFieldSelectionSet selectionSet
     ) {
-        log.info("Query: employees with filter: {}, page: {}, size: {}", filter, page, size);
+        log.debug("Query: employees with filter: {}, page: {}, size: {}", filter, page, size);
+
+        ReactiveEmployeeRepository reactive = reactiveEmployeeRepository.getIfAvailable();
+        if (reactive != null) {
+            if (sortBy == null || sortDir == null) {
+                throw new IllegalArgumentException("Sort field and direction are required");
+            }
+            return reactive.findAll(filter, page, size, sortBy, sortDir, selectionSet.contains("content/attendance"))
+                    .map(this::mapPageToResponse);
+        }
 
         // Method name matches the service: getAllEmployees
-        Page<Employee> employeePage = employeeService.getAllEmployees(filter, page, size, sortBy, sortDir);
+        return Mono.just(mapPageToResponse(employeeService.getAllEmployees(filter, page, size, sortBy, sortDir)));
+    }
+
+    @QueryMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public Mono<Map<String, Object>> employee(@Argument Long id, DataFetchingFieldSelectionSet selectionSet) {
+        log.debug("Query: employee with id: {}", id);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
+        ReactiveEmployeeRepository reactive = reactiveEmployeeRepository.getIfAvailable();
+        Employee cached = reactive != null ? employeeService.getCachedEmployee(id) : null;
+        if (cached != null) {
+            checkCanView(cached, auth, isAdmin);
+            return Mono.just(mapEmployeeToResponse(cached));
+        }
+        if (reactive != null) {
+            return reactive.findById(id, selectionSet.contains("attendance"))
+                    .switchIfEmpty(Mono.error(() -> new RuntimeException("Employee not found with id: " + id)))
+                    .map(employee -> {
+                        checkCanView(employee, auth, isAdmin);
+                        return mapEmployeeToResponse(employee);
+                    });
+        }
+
+        Employee employee = employeeService.getEmployeeById(id);
+        checkCanView(employee, auth, isAdmin);
+
+        return Mono.just(mapEmployeeToResponse(employee));
+    }
+
+    @QueryMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public DataFetcherResult<List<Map<String, Object>>> employeesByIds(@Argument List<Long> ids,
+                                                                       DataFetchingEnvironment environment) {
+        log.debug("Query: employeesByIds with ids: {}", ids);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        // Ownership is checked per element: a profile the caller may not view is left out with an
+        // error at its own path instead of failing the whole list
+        List<Employee> employees = employeeService.getEmployeesByIds(ids);
+        List<Map<String, Object>> content = new ArrayList<>(employees.size());
+        List<GraphQLError> errors = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (employee != null && !canView(employee, auth, isAdmin)) {
+                errors.add(GraphqlErrorBuilder.newError(environment)
+                        .errorType(ErrorType.FORBIDDEN)
+                        .message("Access denied: You can only view your own employee profile")
+                        .path(environment.getExecutionStepInfo().getPath().segment(i))
+                        .build());
+                employee = null;
+            }
+            content.add(employee != null ? mapEmployeeToResponse(employee) : null);
+        }
+
+        return DataFetcherResult.<List<Map<String, Object>>>newResult()
+                .data(content)
+                .errors(errors)
+                .build();
+    }
+
+    private void checkCanView(Employee employee, Authentication auth, boolean isAdmin) {
+        if (!canView(employee, auth, isAdmin)) {
+            throw new RuntimeException("Access denied: You can only view your own employee profile");
+        }
+    }
+
+    private boolean canView(Employee employee, Authentication auth, boolean isAdmin) {
+        return isAdmin || employee.getUser() == null
+                || employee.getUser().getUsername().equals(auth.getName());
+    }
+
+    private Map<String, Object> mapPageToResponse(Page<Employee> employeePage) {
         Map<String, Object> pageInfo = new HashMap<>();
         pageInfo.put("pageNumber", employeePage.getNumber());
         pageInfo.put("pageSize", employeePage.getSize());
@@ -60,34 +167,13 @@ public class EmployeeQueryResolver {
         return result;
     }
 
-    @QueryMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
-    public Map<String, Object> employee(@Argument Long id) {
-        log.info("Query: employee with id: {}", id);
-
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAdmin = auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-
-        Employee employee = employeeService.getEmployeeById(id);
-
-        if (!isAdmin && employee.getUser() != null) {
-            String currentUsername = auth.getName();
-            if (!employee.getUser().getUsername().equals(currentUsername)) {
-                throw new RuntimeException("Access denied: You can only view your own employee profile");
-            }
-        }
-
-        return mapEmployeeToResponse(employee);
-    }
-
     @QueryMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public Map<String, Object> me() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
 
-        log.info("Query: me for user: {}", username);
+        log.debug("Query: me for user: {}", username);
 
         User user = authService.getUserByUsername(username);
 
@@ -102,7 +188,62 @@ public class EmployeeQueryResolver {
         return userMap;
     }
 
-    private Map<String, Object> mapEmployeeToResponse(Employee employee) {
+    @QueryMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public EmployeeStats employeeStats(@Argument Map<String, Object> filter) {
+        log.debug("Query: employeeStats with filter: {}", filter);
+        return employeeService.getEmployeeStats(filter);
+    }
+
+    @QueryMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> employeeChanges(@Argument String since, @Argument int first) {
+        log.debug("Query: employeeChanges since: {}, first: {}", since, first);
+
+        EmployeeChangeService.ChangePage page = employeeChangeService.getChanges(since, first);
+
+        List<Map<String, Object>> changes = page.changes().stream()
+                .map(this::mapChangeToResponse)
+                .collect(Collectors.toList());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("changes", changes);
+        result.put("cursor", page.cursor());
+        result.put("hasMore", page.hasMore());
+        return result;
+    }
+
+    private Map<String, Object> mapChangeToResponse(EmployeeChangeService.Change change) {
+        Map<String, Object> changeMap = new HashMap<>();
+        changeMap.put("kind", change.kind().name());
+        changeMap.put("employeeId", change.employeeId());
+        changeMap.put("employee", change.employee() != null ? mapEmployeeToResponse(change.employee()) : null);
+        changeMap.put("attendance", change.attendanceDate() != null
+                ? new AttendanceRecord(change.attendanceDate().toString(), change.present())
+                : null);
+        changeMap.put("changedAt", change.changedAt().toString());
+        return changeMap;
+    }
+
+    // Query results carry the entity and read live attendance only here, when it is selected, so a
+    // deferred attendance fragment doesn't hold up the page; mutation and subscription results
+    // come with it already mapped. Archived months are only read when asked for.
+    @SchemaMapping(typeName = "Employee", field = "attendance")
+    public List<AttendanceRecord> attendance(Map<String, Object> employee, @Argument Boolean includeArchived) {
+        @SuppressWarnings("unchecked")
+        List<AttendanceRecord> live = employee.containsKey("attendance")
+                ? (List<AttendanceRecord>) employee.get("attendance")
+                : employeeService.getAttendance((Employee) employee.get(ENTITY_KEY));
+        if (!Boolean.TRUE.equals(includeArchived)) {
+            return live;
+        }
+
+        List<AttendanceRecord> attendance = new ArrayList<>(employeeService.getArchivedAttendance((Long) employee.get("id")));
+        attendance.addAll(live);
+        return attendance;
+    }
+
+    Map<String, Object> mapEmployeeToResponse(Employee employee) {
         Map<String, Object> employeeMap = new HashMap<>();
         employeeMap.put("id", employee.getId());
         employeeMap.put("name", employee.getName());
@@ -116,10 +257,8 @@ public class EmployeeQueryResolver {
         employeeMap.put("createdAt", employee.getCreatedAt() != null ? employee.getCreatedAt().toString() : null);
         employeeMap.put("updatedAt", employee.getUpdatedAt() != null ? employee.getUpdatedAt().toString() : null);
 
-        // FIX: The Employee model now has a getAttendance() method that returns
-        // List<AttendanceRecord>. We rely on Spring GraphQL to serialize this List
-        // into the required List of Maps.
-        employeeMap.put("attendance", employee.getAttendance());
+        // Not a schema field, attendance is resolved from it by attendance()
+        employeeMap.put(ENTITY_KEY, employee);
 
         return employeeMap;
     }
@@ -0,0 +1,82 @@
+package com.example.employee.resolver;
+
+import com.example.employee.event.AttendanceMarkedEvent;
+import com.example.employee.model.Employee;
+import com.example.employee.service.EmployeeEventBroadcaster;
+import com.example.employee.service.EmployeeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeSubscriptionResolver {
+
+    private final EmployeeEventBroadcaster eventBroadcaster;
+    private final EmployeeService employeeService;
+
+    @SubscriptionMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public Flux<Map<String, Object>> attendanceMarked(@Argument String className) {
+        log.info("Subscription: attendanceMarked for class: {}", className);
+
+        return eventBroadcaster.attendanceMarked(className)
+                .map(this::mapAttendanceEventToResponse);
+    }
+
+    @SubscriptionMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public Flux<Map<String, Object>> employeeChanged(@Argument Long id) {
+        log.info("Subscription: employeeChanged for id: {}", id);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        if (!isAdmin) {
+            Employee employee = employeeService.getEmployeeById(id);
+            if (employee.getUser() == null || !employee.getUser().getUsername().equals(auth.getName())) {
+                throw new RuntimeException("Access denied: You can only subscribe to your own employee profile");
+            }
+        }
+
+        return eventBroadcaster.employeeChanged(id)
+                .map(this::mapEmployeeToResponse);
+    }
+
+    private Map<String, Object> mapAttendanceEventToResponse(AttendanceMarkedEvent event) {
+        Map<String, Object> eventMap = new HashMap<>();
+        eventMap.put("employeeId", event.employeeId());
+        eventMap.put("employeeName", event.employeeName());
+        eventMap.put("className", event.className());
+        eventMap.put("date", event.date());
+        eventMap.put("present", event.present());
+        return eventMap;
+    }
+
+    private Map<String, Object> mapEmployeeToResponse(EmployeeEventBroadcaster.EmployeeUpdate update) {
+        Employee employee = update.employee();
+        Map<String, Object> employeeMap = new HashMap<>();
+        employeeMap.put("id", employee.getId());
+        employeeMap.put("name", employee.getName());
+        employeeMap.put("age", employee.getAge());
+        employeeMap.put("className", employee.getClassName());
+        employeeMap.put("subjects", employee.getSubjects());
+        employeeMap.put("email", employee.getEmail());
+        employeeMap.put("phone", employee.getPhone());
+        employeeMap.put("createdAt", employee.getCreatedAt() != null ? employee.getCreatedAt().toString() : null);
+        employeeMap.put("updatedAt", employee.getUpdatedAt() != null ? employee.getUpdatedAt().toString() : null);
+        employeeMap.put("attendance", update.attendance());
+        return employeeMap;
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.employee.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps the monthly partitions of {@code employee_attendance} in shape.
+ * <p>
+ * Partitions are created {@code app.attendance.partitions.months-ahead} months in advance. Marks
+ * for months without a partition land in {@code employee_attendance_default} and are moved into
+ * their own partition on the next run. Partitions older than {@code app.attendance.archive.after-months}
+ * are detached and folded into {@code employee_attendance_archive}, one row per employee and month
+ * holding a bitmask of recorded days and a bitmask of present days. Detaching and archiving are
+ * separate steps, so the archive aggregate never runs under a lock on {@code employee_attendance}.
+ * <p>
+ * Every instance schedules the maintenance; a Postgres advisory lock lets one of them run it at
+ * a time and the others skip that run. A partition that can't be detached or archived is logged
+ * and left for the next run without holding up the others.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendancePartitionMaintainer {
+
+    private static final String PARTITION_PREFIX = "employee_attendance_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    // Advisory lock key shared by all instances ("attendan" in ASCII)
+    private static final long MAINTENANCE_LOCK = 0x617474656e64616eL;
+
+    // Day n of the month is bit n - 1; a later archive run for the same month overrides the days it recorded
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO employee_attendance_archive AS a (employee_id, month, recorded_days, present_days) " +
+            "SELECT employee_id, date_trunc('month', attendance_date)::date, " +
+            "       bit_or(1 << (extract(day FROM attendance_date)::int - 1)), " +
+            "       bit_or(CASE WHEN present THEN 1 << (extract(day FROM attendance_date)::int - 1) ELSE 0 END) " +
+            "FROM %s GROUP BY employee_id, date_trunc('month', attendance_date) " +
+            "ON CONFLICT (employee_id, month) DO UPDATE SET " +
+            "recorded_days = a.recorded_days | EXCLUDED.recorded_days, " +
+            "present_days = (a.present_days & ~EXCLUDED.recorded_days) | EXCLUDED.present_days";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.attendance.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.attendance.archive.after-months:24}")
+    private int archiveAfterMonths;
+
+    @Value("${app.attendance.archive.detach-lock-timeout:5s}")
+    private Duration detachLockTimeout;
+
+    @Scheduled(cron = "${app.attendance.partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        withMaintenanceLock(() -> {
+            ensurePartitions();
+            archiveColdPartitions();
+        });
+    }
+
+    // Runs once the server is up: marks arriving before then go to the default partition and are moved here.
+    // Must not fail the startup; if this doesn't get through, the next scheduled run does it.
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        try {
+            withMaintenanceLock(this::ensurePartitions);
+        } catch (RuntimeException ex) {
+            log.warn("Could not ensure attendance partitions at startup, leaving it to the next scheduled run: {}",
+                    ex.getMessage());
+        }
+    }
+
+    public void ensurePartitions() {
+        SortedSet<YearMonth> months = new TreeSet<>();
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            months.add(current.plusMonths(i));
+        }
+        jdbcTemplate.queryForList(
+                        "SELECT DISTINCT date_trunc('month', attendance_date)::date FROM employee_attendance_default",
+                        LocalDate.class)
+                .forEach(month -> months.add(YearMonth.from(month)));
+
+        months.forEach(this::ensurePartition);
+    }
+
+    public void ensurePartition(YearMonth month) {
+        if (!partitionExists(month)) {
+            createPartition(month);
+        }
+    }
+
+    public void archiveColdPartitions() {
+        YearMonth cutoff = YearMonth.now().minusMonths(archiveAfterMonths);
+
+        // Also finds partitions an earlier run detached but did not get to archive
+        List<ColdPartition> partitions = jdbcTemplate.query(
+                "SELECT c.relname, i.inhrelid IS NOT NULL AS attached, coalesce(i.inhdetachpending, false) AS detach_pending " +
+                "FROM pg_class c LEFT JOIN pg_inherits i " +
+                "    ON i.inhrelid = c.oid AND i.inhparent = 'employee_attendance'::regclass " +
+                "WHERE c.relkind = 'r' AND c.relnamespace = current_schema()::regnamespace " +
+                "AND c.relname ~ '^employee_attendance_p[0-9]{6}$' " +
+                "ORDER BY c.relname",
+                (rs, rowNum) -> new ColdPartition(
+                        rs.getString("relname"), rs.getBoolean("attached"), rs.getBoolean("detach_pending")));
+
+        for (ColdPartition partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.name().substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                if (partition.attached()) {
+                    detachPartition(partition);
+                }
+                archivePartition(partition.name(), month);
+            } catch (RuntimeException ex) {
+                log.warn("Could not archive attendance partition {}, leaving it for the next run: {}",
+                        partition.name(), ex.getMessage());
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition +
+                    " (LIKE employee_attendance INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            if (isAttached(partition)) {
+                // Created by a caller outside the maintenance lock, e.g. the data generator of another instance
+                return;
+            }
+
+            // The rows only change partition; they're in the change log already
+            jdbcTemplate.execute("SET LOCAL app.skip_attendance_change_log = 'on'");
+
+            // Attaching fails while the default partition still holds rows for this month
+            int moved = jdbcTemplate.update(
+                    "WITH moved AS (DELETE FROM employee_attendance_default " +
+                    "WHERE attendance_date >= ? AND attendance_date < ? " +
+                    "RETURNING employee_id, attendance_date, present) " +
+                    "INSERT INTO " + partition + " (employee_id, attendance_date, present) SELECT * FROM moved",
+                    from, to);
+
+            jdbcTemplate.execute("ALTER TABLE employee_attendance ATTACH PARTITION " + partition +
+                    " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+
+            log.info("Created attendance partition {} ({} rows moved from the default partition)", partition, moved);
+        });
+    }
+
+    /**
+     * Detaches a partition on its own, before anything is archived, so that employee_attendance is
+     * only locked for the detach itself. CONCURRENTLY needs no ACCESS EXCLUSIVE lock but cannot run
+     * in a transaction and is refused while the table has a default partition; in that case the
+     * detach runs in a transaction of its own and gives up after {@code detach-lock-timeout}
+     * rather than queueing every attendance query behind it. The next run tries again.
+     */
+    private void detachPartition(ColdPartition partition) {
+        String detach = "ALTER TABLE employee_attendance DETACH PARTITION " + partition.name();
+
+        if (partition.detachPending()) {
+            // An interrupted concurrent detach has to be finished before anything else
+            jdbcTemplate.execute(detach + " FINALIZE");
+        } else if (hasDefaultPartition()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = " + detachLockTimeout.toMillis());
+                jdbcTemplate.execute(detach);
+            });
+        } else {
+            jdbcTemplate.execute(detach + " CONCURRENTLY");
+        }
+    }
+
+    // The partition is detached by now, so nothing here locks employee_attendance
+    private void archivePartition(String partition, YearMonth month) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int archived = jdbcTemplate.update(ARCHIVE_SQL.formatted(partition));
+            // The month leaves the default attendance list, so these employees' HTTP validators must change
+            jdbcTemplate.update("INSERT INTO employee_attendance_version AS v (employee_id, version, updated_at) " +
+                    "SELECT DISTINCT employee_id, 1, now() FROM " + partition + " " +
+                    "ON CONFLICT (employee_id) DO UPDATE SET version = v.version + 1, updated_at = EXCLUDED.updated_at");
+            jdbcTemplate.execute("DROP TABLE " + partition);
+
+            log.info("Archived attendance for {} ({} employee-months) and dropped {}", month, archived, partition);
+        });
+    }
+
+    /**
+     * Runs {@code work} while holding the maintenance advisory lock, or skips it if another
+     * instance holds it. The lock is tied to the session, so it's held on a connection of its
+     * own for the whole run; the work itself uses other connections.
+     */
+    private void withMaintenanceLock(Runnable work) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)")) {
+                log.info("Attendance partition maintenance is running on another instance, skipping");
+                return null;
+            }
+            try {
+                work.run();
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+            }
+            return null;
+        });
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, MAINTENANCE_LOCK);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private boolean isAttached(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = CAST(? AS regclass))",
+                Boolean.class, partition));
+    }
+
+    private boolean hasDefaultPartition() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT partdefid <> 0 FROM pg_partitioned_table WHERE partrelid = 'employee_attendance'::regclass",
+                Boolean.class));
+    }
+
+    private boolean partitionExists(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, partitionName(month)));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private record ColdPartition(String name, boolean attached, boolean detachPending) {
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.employee.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind mode for attendance marks, enabled with
+ * {@code app.attendance.write-behind.enabled=true}.
+ * <p>
+ * Accepted marks are appended to a memory-mapped {@link AttendanceWriteBehindLog} and acknowledged
+ * without touching the connection pool. A scheduled flusher coalesces them per (employee, date) and
+ * stores them with batched upserts. Until then, reads merge the pending marks through
+ * {@link #mergePendingInto}. On startup, everything after the log's last checkpoint is replayed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.attendance.write-behind", name = "enabled", havingValue = "true")
+@Slf4j
+public class AttendanceWriteBehindBuffer {
+
+    // Marks for employees deleted in the meantime are dropped instead of failing the batch
+    private static final String UPSERT_SQL =
+            "INSERT INTO employee_attendance (employee_id, attendance_date, present) " +
+            "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM employees WHERE id = ?) " +
+            "ON CONFLICT (employee_id, attendance_date) DO UPDATE SET present = EXCLUDED.present";
+
+    // Keeps HTTP validators of the employee in step with its attendance, see EmployeeRepository#bumpAttendanceVersion
+    private static final String VERSION_SQL =
+            "INSERT INTO employee_attendance_version AS v (employee_id, version, updated_at) " +
+            "SELECT ?, 1, now() WHERE EXISTS (SELECT 1 FROM employees WHERE id = ?) " +
+            "ON CONFLICT (employee_id) DO UPDATE SET version = v.version + 1, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final AttendanceWriteBehindLog writeLog;
+    private final boolean forceOnAppend;
+    private final int batchSize;
+
+    // Guards appends against the flusher swapping the pending map
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // Keeps flushes, and therefore checkpoints, strictly ordered
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile Map<Long, Map<LocalDate, Boolean>> pending = new ConcurrentHashMap<>();
+    private volatile Map<Long, Map<LocalDate, Boolean>> inFlight = Map.of();
+
+    public AttendanceWriteBehindBuffer(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            CacheManager cacheManager,
+            @Value("${app.attendance.write-behind.log-path}") Path logPath,
+            @Value("${app.attendance.write-behind.log-capacity:64MB}") DataSize logCapacity,
+            @Value("${app.attendance.write-behind.force-on-append:true}") boolean forceOnAppend,
+            @Value("${app.attendance.write-behind.batch-size:500}") int batchSize
+    ) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.writeLog = AttendanceWriteBehindLog.open(logPath, (int) logCapacity.toBytes());
+        this.forceOnAppend = forceOnAppend;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void recover() {
+        List<AttendanceWriteBehindLog.Entry> entries = writeLog.recover();
+        for (AttendanceWriteBehindLog.Entry entry : entries) {
+            pending.computeIfAbsent(entry.employeeId(), id -> new ConcurrentHashMap<>())
+                    .put(LocalDate.parse(entry.date()), entry.present());
+        }
+
+        if (!entries.isEmpty()) {
+            log.info("Replaying {} attendance marks from the write-behind log", entries.size());
+            flush();
+        }
+    }
+
+    /**
+     * Durably records a mark. Returns false when the log is full, in which case
+     * the caller should store the mark synchronously.
+     */
+    public boolean tryAccept(Long employeeId, LocalDate date, Boolean present) {
+        AttendanceWriteBehindLog.Appended appended;
+
+        appendLock.lock();
+        try {
+            appended = writeLog.append(employeeId, date.toString(), present);
+            if (appended == null) {
+                return false;
+            }
+            pending.computeIfAbsent(employeeId, id -> new ConcurrentHashMap<>()).put(date, present);
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (forceOnAppend) {
+            writeLog.force(appended);
+        }
+        return true;
+    }
+
+    public boolean hasPending(Long employeeId) {
+        return pending.containsKey(employeeId) || inFlight.containsKey(employeeId);
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty() || !inFlight.isEmpty();
+    }
+
+    /**
+     * Overlays marks that are not yet in the database, newest last.
+     */
+    public void mergePendingInto(Long employeeId, Map<LocalDate, Boolean> attendance) {
+        Map<LocalDate, Boolean> flushing = inFlight.get(employeeId);
+        if (flushing != null) {
+            attendance.putAll(flushing);
+        }
+
+        Map<LocalDate, Boolean> queued = pending.get(employeeId);
+        if (queued != null) {
+            attendance.putAll(queued);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.attendance.write-behind.flush-interval:200ms}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        Map<Long, Map<LocalDate, Boolean>> batch;
+        long upToSeq;
+
+        appendLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            upToSeq = writeLog.getLastSeq();
+            inFlight = batch;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            appendLock.unlock();
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        batch.forEach((employeeId, marks) -> marks.forEach((date, present) ->
+                rows.add(new Object[]{employeeId, date, present, employeeId})));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows, batchSize, (ps, row) -> {
+                    ps.setLong(1, (Long) row[0]);
+                    ps.setObject(2, row[1]);
+                    ps.setBoolean(3, (Boolean) row[2]);
+                    ps.setLong(4, (Long) row[3]);
+                });
+                jdbcTemplate.batchUpdate(VERSION_SQL, batch.keySet(), batchSize, (ps, employeeId) -> {
+                    ps.setLong(1, employeeId);
+                    ps.setLong(2, employeeId);
+                });
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush {} attendance marks, will retry", rows.size(), ex);
+            requeue(batch);
+            return;
+        }
+
+        // Evict around dropping the in-flight view so no reader caches an employee without these marks
+        evictEmployees(batch.keySet());
+        inFlight = Map.of();
+        evictEmployees(batch.keySet());
+
+        appendLock.lock();
+        try {
+            writeLog.checkpoint(upToSeq);
+        } finally {
+            appendLock.unlock();
+        }
+
+        log.debug("Flushed {} attendance marks for {} employees", rows.size(), batch.size());
+    }
+
+    private void requeue(Map<Long, Map<LocalDate, Boolean>> batch) {
+        appendLock.lock();
+        try {
+            // Marks accepted while the batch was in flight are newer and win
+            batch.forEach((employeeId, marks) -> {
+                Map<LocalDate, Boolean> queued = pending.computeIfAbsent(employeeId, id -> new ConcurrentHashMap<>());
+                marks.forEach(queued::putIfAbsent);
+            });
+            inFlight = Map.of();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void evictEmployees(Set<Long> employeeIds) {
+        Cache cache = cacheManager.getCache("employees");
+        if (cache != null) {
+            employeeIds.forEach(cache::evict);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        writeLog.close();
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.employee.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Durable append-only log of accepted attendance marks, backed by two memory-mapped segment files
+ * ({@code path} and {@code path.1}) of {@code capacity} bytes each.
+ * <p>
+ * Segment layout: a 16 byte header (magic, version, checkpoint sequence) followed by records of
+ * {@code [int payloadLength][int crc32][long seq][long employeeId][byte present][short dateLength][date]}.
+ * A zero length marks the end of a segment. Records up to the checkpoint are already in the database.
+ * Marks are appended to the active segment; when it is full, appending moves on to the other one,
+ * which is reset first, as soon as every record in it is checkpointed. Under steady traffic the
+ * flusher keeps checkpointing behind the appends, so the log only fills up if it falls a whole
+ * segment behind.
+ */
+public class AttendanceWriteBehindLog implements AutoCloseable {
+
+    public record Entry(long seq, long employeeId, String date, boolean present) {}
+
+    public record Appended(long seq, int segment, int position, int length) {}
+
+    private static final int MAGIC = 0x41574231;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int CHECKPOINT_OFFSET = 8;
+    private static final int RECORD_OVERHEAD = 8;
+    private static final int FIXED_PAYLOAD = 8 + 8 + 1 + 2;
+    private static final int SEGMENTS = 2;
+
+    private final Segment[] segments;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int active;
+    private long lastSeq;
+    private long checkpointSeq;
+
+    private AttendanceWriteBehindLog(Segment[] segments) {
+        this.segments = segments;
+    }
+
+    public static AttendanceWriteBehindLog open(Path path, int capacity) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        Segment[] segments = new Segment[SEGMENTS];
+        try {
+            for (int i = 0; i < SEGMENTS; i++) {
+                // The first segment keeps the configured name, so a log written before segments existed is replayed
+                segments[i] = Segment.open(i == 0 ? path : path.resolveSibling(path.getFileName() + "." + i), capacity);
+            }
+        } catch (IOException ex) {
+            for (Segment segment : segments) {
+                if (segment != null) {
+                    segment.close();
+                }
+            }
+            throw ex;
+        }
+
+        return new AttendanceWriteBehindLog(segments);
+    }
+
+    /**
+     * Scans both segments and returns every record written after the last checkpoint, in append
+     * order. Scanning a segment stops at the end marker, a torn record (bad checksum) or a stale
+     * record left over from before the segment was last reused (non-increasing sequence).
+     */
+    public List<Entry> recover() {
+        lock.lock();
+        try {
+            checkpointSeq = 0;
+            for (Segment segment : segments) {
+                checkpointSeq = Math.max(checkpointSeq, segment.storedCheckpoint());
+            }
+
+            List<Entry> entries = new ArrayList<>();
+            lastSeq = checkpointSeq;
+            active = 0;
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i].scan(entries, checkpointSeq);
+                if (segments[i].lastSeq > lastSeq) {
+                    lastSeq = segments[i].lastSeq;
+                    active = i;
+                }
+            }
+
+            entries.sort(Comparator.comparingLong(Entry::seq));
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a record, or returns null when both segments still hold records that aren't in the
+     * database yet.
+     */
+    public Appended append(long employeeId, String date, boolean present) {
+        byte[] dateBytes = date.getBytes(StandardCharsets.UTF_8);
+        int payloadLength = FIXED_PAYLOAD + dateBytes.length;
+        int recordLength = RECORD_OVERHEAD + payloadLength;
+
+        lock.lock();
+        try {
+            Segment segment = segments[active];
+            if (!segment.fits(recordLength)) {
+                int next = (active + 1) % SEGMENTS;
+                if (segments[next].lastSeq > checkpointSeq || !segments[next].fitsWhenEmpty(recordLength)) {
+                    return null;
+                }
+                segments[next].reset(checkpointSeq);
+                active = next;
+                segment = segments[next];
+            }
+
+            long seq = lastSeq + 1;
+            int pos = segment.write(seq, employeeId, present, dateBytes, payloadLength);
+            lastSeq = seq;
+            return new Appended(seq, active, pos, recordLength);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces an appended record to disk. Safe to call without holding any lock.
+     */
+    public void force(Appended appended) {
+        segments[appended.segment()].buffer.force(appended.position(), appended.length());
+    }
+
+    public long getLastSeq() {
+        lock.lock();
+        try {
+            return lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks every record up to {@code seq} as stored in the database, which frees the inactive
+     * segment for reuse once its records are all covered. If nothing was appended since, the active
+     * segment is rewound as well.
+     */
+    public void checkpoint(long seq) {
+        lock.lock();
+        try {
+            checkpointSeq = seq;
+            Segment segment = segments[active];
+            segment.storeCheckpoint(seq);
+
+            if (seq == lastSeq) {
+                segment.rewind();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private static final class Segment {
+
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+
+        private int position = HEADER_SIZE;
+        // Sequence of the last record written to this segment since it was last reset
+        private long lastSeq;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        static Segment open(Path path, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+            if (buffer.getInt(0) != MAGIC) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(CHECKPOINT_OFFSET, 0L);
+                buffer.putInt(HEADER_SIZE, 0);
+                buffer.force();
+            }
+
+            return new Segment(channel, buffer, capacity);
+        }
+
+        long storedCheckpoint() {
+            return buffer.getLong(CHECKPOINT_OFFSET);
+        }
+
+        void scan(List<Entry> entries, long checkpointSeq) {
+            int pos = HEADER_SIZE;
+            long previousSeq = 0;
+
+            while (pos + RECORD_OVERHEAD <= capacity) {
+                int payloadLength = buffer.getInt(pos);
+                if (payloadLength < FIXED_PAYLOAD || pos + RECORD_OVERHEAD + payloadLength > capacity) {
+                    break;
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(buffer.slice(pos + RECORD_OVERHEAD, payloadLength));
+                if ((int) crc.getValue() != buffer.getInt(pos + 4)) {
+                    break;
+                }
+
+                ByteBuffer payload = buffer.slice(pos + RECORD_OVERHEAD, payloadLength);
+                long seq = payload.getLong();
+                if (seq <= previousSeq) {
+                    break;
+                }
+                long employeeId = payload.getLong();
+                boolean present = payload.get() == 1;
+                byte[] date = new byte[payload.getShort()];
+                payload.get(date);
+
+                if (seq > checkpointSeq) {
+                    entries.add(new Entry(seq, employeeId, new String(date, StandardCharsets.UTF_8), present));
+                }
+
+                previousSeq = seq;
+                pos += RECORD_OVERHEAD + payloadLength;
+            }
+
+            position = pos;
+            lastSeq = previousSeq;
+            writeEndMarker();
+        }
+
+        boolean fits(int recordLength) {
+            return position + recordLength + 4 <= capacity;
+        }
+
+        boolean fitsWhenEmpty(int recordLength) {
+            return HEADER_SIZE + recordLength + 4 <= capacity;
+        }
+
+        int write(long seq, long employeeId, boolean present, byte[] dateBytes, int payloadLength) {
+            int pos = position;
+            int recordLength = RECORD_OVERHEAD + payloadLength;
+
+            buffer.slice(pos + RECORD_OVERHEAD, payloadLength)
+                    .putLong(seq)
+                    .putLong(employeeId)
+                    .put((byte) (present ? 1 : 0))
+                    .putShort((short) dateBytes.length)
+                    .put(dateBytes);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(pos + RECORD_OVERHEAD, payloadLength));
+            buffer.putInt(pos + 4, (int) crc.getValue());
+            buffer.putInt(pos + recordLength, 0);
+            // Written last: a record only counts once its length is there
+            buffer.putInt(pos, payloadLength);
+
+            position = pos + recordLength;
+            lastSeq = seq;
+            return pos;
+        }
+
+        void storeCheckpoint(long seq) {
+            buffer.putLong(CHECKPOINT_OFFSET, seq);
+            buffer.force(0, HEADER_SIZE);
+        }
+
+        // Everything in here is checkpointed; on disk before the first new record can be
+        void reset(long checkpointSeq) {
+            rewind();
+            buffer.putLong(CHECKPOINT_OFFSET, checkpointSeq);
+            buffer.force(0, HEADER_SIZE + 4);
+        }
+
+        void rewind() {
+            position = HEADER_SIZE;
+            writeEndMarker();
+        }
+
+        private void writeEndMarker() {
+            if (position + 4 <= capacity) {
+                buffer.putInt(position, 0);
+            }
+        }
+
+        void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+}
@@ -58,6 +58,7 @@ public class AuthService {
         return jwtTokenProvider.generateToken(userDetails);
     }
 
+    @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
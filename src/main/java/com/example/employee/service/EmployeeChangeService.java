@@ -0,0 +1,243 @@
+package com.example.employee.service;
+
+import com.example.employee.model.Employee;
+import com.example.employee.repository.EmployeeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the {@code employee_change_log} that triggers fill on every employee insert, update and
+ * delete and every attendance mark (see {@code V5__employee_change_log.sql}).
+ * <p>
+ * Entries are served in (transaction id, sequence) order and only from transactions older than
+ * the oldest one still running, so a transaction that commits late can never land behind a
+ * cursor that was already handed out. A long-running write therefore holds the feed back until
+ * it ends. Transaction ids are not commit order, so entries are not replayed as logged: an
+ * upsert carries the employee as it is now and an attendance mark the value stored now, which
+ * every later entry for the same employee or day agrees with.
+ * <p>
+ * Entries older than {@code app.employees.changes.retention} are pruned; cursors from before the
+ * last pruned entry are rejected and the client has to start over with a full read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeChangeService {
+
+    private static final Pattern CURSOR = Pattern.compile("(\\d{1,20}):(\\d{1,19})");
+
+    private static final String PAGE_SQL =
+            "SELECT seq, tx_id::text AS tx_id, kind, employee_id, attendance_date, present, changed_at " +
+            "FROM employee_change_log " +
+            "WHERE (tx_id, seq) > (CAST(? AS xid8), ?) AND tx_id < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "ORDER BY tx_id, seq LIMIT ?";
+
+    private static final String CURRENT_MARKS_SQL =
+            "SELECT a.employee_id, a.attendance_date, a.present " +
+            "FROM employee_attendance a " +
+            "JOIN unnest(?::bigint[], ?::date[]) AS k(employee_id, attendance_date) " +
+            "ON a.employee_id = k.employee_id AND a.attendance_date = k.attendance_date";
+
+    // Deletes old entries and moves the horizon up to the newest of them, in one statement
+    private static final String PRUNE_SQL =
+            "WITH pruned AS (DELETE FROM employee_change_log WHERE changed_at < ? RETURNING tx_id, seq), " +
+            "horizon AS (INSERT INTO employee_change_log_horizon AS h (id, tx_id, seq) " +
+            "    SELECT 1, tx_id, seq FROM pruned ORDER BY tx_id DESC, seq DESC LIMIT 1 " +
+            "    ON CONFLICT (id) DO UPDATE SET tx_id = EXCLUDED.tx_id, seq = EXCLUDED.seq " +
+            "    WHERE (EXCLUDED.tx_id, EXCLUDED.seq) > (h.tx_id, h.seq)) " +
+            "SELECT count(*) FROM pruned";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmployeeRepository employeeRepository;
+
+    @Value("${app.employees.changes.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${app.employees.changes.retention:30d}")
+    private Duration retention;
+
+    /**
+     * Up to {@code first} changes after {@code since}. Without {@code since}, no changes and the
+     * current position, to be taken before the initial full read of the directory.
+     */
+    public ChangePage getChanges(String since, int first) {
+        if (first < 1 || first > maxPageSize) {
+            throw new IllegalArgumentException("first must be between 1 and " + maxPageSize);
+        }
+
+        if (since == null) {
+            String head = jdbcTemplate.queryForObject(
+                    "SELECT pg_snapshot_xmin(pg_current_snapshot())::text", String.class);
+            return new ChangePage(List.of(), encode(head, 0), false);
+        }
+
+        Position position = decode(since);
+        List<ChangeEntry> entries = jdbcTemplate.query(PAGE_SQL, (rs, rowNum) -> new ChangeEntry(
+                        rs.getLong("seq"),
+                        rs.getString("tx_id"),
+                        rs.getString("kind"),
+                        rs.getLong("employee_id"),
+                        rs.getObject("attendance_date", Date.class),
+                        rs.getObject("present", Boolean.class),
+                        rs.getTimestamp("changed_at")),
+                position.txId(), position.seq(), first + 1);
+
+        // Checked after reading: a prune that ran before the read is seen here, one after it can't
+        // have removed anything the page needed
+        Boolean expired = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM employee_change_log_horizon WHERE (tx_id, seq) > (CAST(? AS xid8), ?))",
+                Boolean.class, position.txId(), position.seq());
+        if (Boolean.TRUE.equals(expired)) {
+            throw new IllegalArgumentException("Cursor has expired, start over with a full read");
+        }
+
+        boolean hasMore = entries.size() > first;
+        if (hasMore) {
+            entries = entries.subList(0, first);
+        }
+        if (entries.isEmpty()) {
+            return new ChangePage(List.of(), since, false);
+        }
+
+        ChangeEntry last = entries.get(entries.size() - 1);
+        return new ChangePage(toChanges(entries), encode(last.txId(), last.seq()), hasMore);
+    }
+
+    // Upserts and marks carry the current state, so only the last one per employee, or per
+    // employee and day, in a page is kept
+    private List<Change> toChanges(List<ChangeEntry> entries) {
+        Map<Long, Long> lastUpsert = new HashMap<>();
+        Map<AttendanceKey, Long> lastMark = new HashMap<>();
+        for (ChangeEntry entry : entries) {
+            if ("UPSERTED".equals(entry.kind())) {
+                lastUpsert.put(entry.employeeId(), entry.seq());
+            } else if ("ATTENDANCE".equals(entry.kind())) {
+                lastMark.put(AttendanceKey.of(entry), entry.seq());
+            }
+        }
+
+        Map<Long, Employee> employees = lastUpsert.isEmpty() ? Map.of()
+                : employeeRepository.findAllWithUserByIdIn(lastUpsert.keySet()).stream()
+                        .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        Map<AttendanceKey, Boolean> marks = currentMarks(lastMark.keySet());
+
+        List<Change> changes = new ArrayList<>(entries.size());
+        for (ChangeEntry entry : entries) {
+            Boolean present = entry.present();
+            if ("UPSERTED".equals(entry.kind()) && lastUpsert.get(entry.employeeId()) != entry.seq()) {
+                continue;
+            }
+            if ("ATTENDANCE".equals(entry.kind())) {
+                AttendanceKey key = AttendanceKey.of(entry);
+                if (lastMark.get(key) != entry.seq()) {
+                    continue;
+                }
+                // A mark that is gone by now was archived, or its employee deleted and tombstoned
+                present = marks.getOrDefault(key, present);
+            }
+            // An upserted employee that is gone by now is followed by its tombstone
+            changes.add(new Change(
+                    ChangeKind.valueOf(entry.kind()),
+                    entry.employeeId(),
+                    employees.get(entry.employeeId()),
+                    entry.attendanceDate() != null ? entry.attendanceDate().toLocalDate() : null,
+                    present,
+                    entry.changedAt().toLocalDateTime()));
+        }
+        return changes;
+    }
+
+    private Map<AttendanceKey, Boolean> currentMarks(Collection<AttendanceKey> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<AttendanceKey, Boolean> marks = new HashMap<>();
+        jdbcTemplate.query(CURRENT_MARKS_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint",
+                            keys.stream().map(AttendanceKey::employeeId).toArray()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("date",
+                            keys.stream().map(key -> Date.valueOf(key.date())).toArray()));
+                },
+                rs -> {
+                    marks.put(new AttendanceKey(rs.getLong("employee_id"), rs.getObject("attendance_date", LocalDate.class)),
+                            rs.getBoolean("present"));
+                });
+        return marks;
+    }
+
+    @Scheduled(cron = "${app.employees.changes.prune-cron:0 30 3 * * *}")
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Long pruned = jdbcTemplate.queryForObject(PRUNE_SQL, Long.class, Timestamp.valueOf(cutoff));
+        log.info("Pruned {} employee changes from before {}", pruned, cutoff);
+    }
+
+    private static String encode(String txId, long seq) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((txId + ":" + seq).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            Matcher matcher = CURSOR.matcher(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+            if (matcher.matches()) {
+                return new Position(matcher.group(1), Long.parseLong(matcher.group(2)));
+            }
+        } catch (IllegalArgumentException ex) {
+            // Not Base64, or the sequence is out of range
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    private record Position(String txId, long seq) {
+    }
+
+    private record AttendanceKey(long employeeId, LocalDate date) {
+
+        static AttendanceKey of(ChangeEntry entry) {
+            return new AttendanceKey(entry.employeeId(), entry.attendanceDate().toLocalDate());
+        }
+    }
+
+    private record ChangeEntry(long seq, String txId, String kind, long employeeId,
+                               Date attendanceDate, Boolean present, Timestamp changedAt) {
+    }
+
+    public enum ChangeKind {
+        UPSERTED, DELETED, ATTENDANCE
+    }
+
+    /**
+     * One entry of the feed: the employee's current state for {@code UPSERTED} (null if it has
+     * been deleted since), nothing but the id for {@code DELETED}, the mark for {@code ATTENDANCE}.
+     */
+    public record Change(ChangeKind kind, Long employeeId, Employee employee,
+                         LocalDate attendanceDate, Boolean present, LocalDateTime changedAt) {
+    }
+
+    public record ChangePage(List<Change> changes, String cursor, boolean hasMore) {
+    }
+}
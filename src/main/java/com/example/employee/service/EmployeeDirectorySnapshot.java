@@ -0,0 +1,372 @@
+package com.example.employee.service;
+
+import com.example.employee.dto.EmployeeSortField;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, column-oriented copy of the employee directory used by {@link EmployeeReadModel}.
+ * <p>
+ * Every employee occupies a slot; ages are kept in an {@code int[]}, and class names and subjects
+ * each have a {@link BitSet} of the slots carrying them, so the class and subject filters are
+ * bitmap intersections. For every {@link EmployeeSortField} an {@code int[]} of the live slots in
+ * ascending (field, id) order is kept; descending pages walk it backwards. Strings sort in Java's
+ * natural order, which can differ from the database collation.
+ * <p>
+ * {@link #withChanges} derives the next snapshot without rebuilding: slots stay where they are
+ * (a deleted employee's slot is reused by a later insert), only the bitmaps of the classes and
+ * subjects involved are copied, and each sort order drops the changed slots and merges them back
+ * in at their new positions.
+ */
+final class EmployeeDirectorySnapshot {
+
+    record Row(long id, String name, int age, String className, List<String> subjects,
+               String email, LocalDateTime createdAt, LocalDateTime updatedAt) {}
+
+    record Result(List<Long> ids, long total) {}
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private static final Comparator<LocalDateTime> TIMESTAMP_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+    private static final Comparator<String> EMAIL_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    @FunctionalInterface
+    private interface SlotOrder {
+        int compare(int a, int b);
+    }
+
+    // Indexed by slot; null for free slots
+    private final Row[] rows;
+    private final String[] lowerNames;
+    private final int[] ages;
+    private final BitSet live;
+    private final Map<String, BitSet> classBitmaps;
+    private final Map<String, BitSet> subjectBitmaps;
+    private final Map<EmployeeSortField, int[]> sortOrders = new EnumMap<>(EmployeeSortField.class);
+
+    private EmployeeDirectorySnapshot(Row[] rows, String[] lowerNames, int[] ages, BitSet live,
+                                      Map<String, BitSet> classBitmaps, Map<String, BitSet> subjectBitmaps) {
+        this.rows = rows;
+        this.lowerNames = lowerNames;
+        this.ages = ages;
+        this.live = live;
+        this.classBitmaps = classBitmaps;
+        this.subjectBitmaps = subjectBitmaps;
+    }
+
+    static EmployeeDirectorySnapshot of(Collection<Row> rows) {
+        Row[] ordered = rows.toArray(Row[]::new);
+        Arrays.sort(ordered, Comparator.comparingLong(Row::id));
+
+        int size = ordered.length;
+        String[] lowerNames = new String[size];
+        int[] ages = new int[size];
+        BitSet live = new BitSet(size);
+        live.set(0, size);
+        Map<String, BitSet> classBitmaps = new HashMap<>();
+        Map<String, BitSet> subjectBitmaps = new HashMap<>();
+
+        for (int slot = 0; slot < size; slot++) {
+            Row row = ordered[slot];
+            lowerNames[slot] = row.name().toLowerCase();
+            ages[slot] = row.age();
+
+            classBitmaps.computeIfAbsent(row.className(), key -> new BitSet(size)).set(slot);
+            for (String subject : row.subjects()) {
+                subjectBitmaps.computeIfAbsent(subject, key -> new BitSet(size)).set(slot);
+            }
+        }
+
+        EmployeeDirectorySnapshot snapshot =
+                new EmployeeDirectorySnapshot(ordered, lowerNames, ages, live, classBitmaps, subjectBitmaps);
+
+        // Slots are numbered in id order here, so the id order is the identity
+        int[] identity = new int[size];
+        Arrays.setAll(identity, slot -> slot);
+        for (EmployeeSortField field : EmployeeSortField.values()) {
+            int[] order = identity.clone();
+            if (field != EmployeeSortField.ID) {
+                sort(order, snapshot.slotOrder(field));
+            }
+            snapshot.sortOrders.put(field, order);
+        }
+        return snapshot;
+    }
+
+    /**
+     * The snapshot after inserting or replacing {@code upserts} and removing {@code deletedIds}.
+     * Rows that are unchanged and ids that aren't here are ignored.
+     */
+    EmployeeDirectorySnapshot withChanges(Collection<Row> upserts, Collection<Long> deletedIds) {
+        BitSet newLive = (BitSet) live.clone();
+        // Slots whose previous row leaves the sort orders and bitmaps, and slots getting a new row
+        BitSet removed = new BitSet();
+        Map<Integer, Row> added = new HashMap<>();
+
+        for (Long id : deletedIds) {
+            int slot = slotOf(id);
+            if (slot >= 0) {
+                removed.set(slot);
+                newLive.clear(slot);
+            }
+        }
+
+        List<Row> inserts = new ArrayList<>();
+        for (Row row : upserts) {
+            int slot = slotOf(row.id());
+            if (slot < 0) {
+                inserts.add(row);
+            } else if (!row.equals(rows[slot])) {
+                removed.set(slot);
+                added.put(slot, row);
+            }
+        }
+
+        int free = 0;
+        for (Row row : inserts) {
+            free = newLive.nextClearBit(free);
+            newLive.set(free);
+            added.put(free, row);
+        }
+
+        if (removed.isEmpty() && added.isEmpty()) {
+            return this;
+        }
+
+        int capacity = Math.max(rows.length, newLive.length());
+        Row[] newRows = Arrays.copyOf(rows, capacity);
+        String[] newLowerNames = Arrays.copyOf(lowerNames, capacity);
+        int[] newAges = Arrays.copyOf(ages, capacity);
+        Map<String, BitSet> newClassBitmaps = new HashMap<>(classBitmaps);
+        Map<String, BitSet> newSubjectBitmaps = new HashMap<>(subjectBitmaps);
+        // Bitmaps shared with this snapshot are copied before their first modification
+        Set<BitSet> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (int slot = removed.nextSetBit(0); slot >= 0; slot = removed.nextSetBit(slot + 1)) {
+            Row row = rows[slot];
+            clear(newClassBitmaps, row.className(), slot, copies);
+            for (String subject : row.subjects()) {
+                clear(newSubjectBitmaps, subject, slot, copies);
+            }
+            newRows[slot] = null;
+            newLowerNames[slot] = null;
+        }
+
+        int[] addedSlots = new int[added.size()];
+        int k = 0;
+        for (Map.Entry<Integer, Row> entry : added.entrySet()) {
+            int slot = entry.getKey();
+            Row row = entry.getValue();
+            newRows[slot] = row;
+            newLowerNames[slot] = row.name().toLowerCase();
+            newAges[slot] = row.age();
+            set(newClassBitmaps, row.className(), slot, copies);
+            for (String subject : row.subjects()) {
+                set(newSubjectBitmaps, subject, slot, copies);
+            }
+            addedSlots[k++] = slot;
+        }
+
+        EmployeeDirectorySnapshot next = new EmployeeDirectorySnapshot(
+                newRows, newLowerNames, newAges, newLive, newClassBitmaps, newSubjectBitmaps);
+
+        for (EmployeeSortField field : EmployeeSortField.values()) {
+            SlotOrder order = next.slotOrder(field);
+            int[] sortedAdded = addedSlots.clone();
+            sort(sortedAdded, order);
+            next.sortOrders.put(field, merge(sortOrders.get(field), removed, sortedAdded, order));
+        }
+        return next;
+    }
+
+    int size() {
+        return sortOrders.get(EmployeeSortField.ID).length;
+    }
+
+    /**
+     * Ids of one page of employees matching the filter, which takes the same keys as
+     * {@link EmployeeService#createSpecification}.
+     */
+    Result query(Map<String, Object> filter, EmployeeSortField sortBy, Sort.Direction sortDir, int page, int pageSize) {
+        int[] order = sortOrders.get(sortBy);
+        int size = order.length;
+
+        BitSet matches = match(filter);
+        long total = matches != null ? matches.cardinality() : size;
+
+        long skip = (long) page * pageSize;
+        List<Long> pageIds = new ArrayList<>(pageSize);
+
+        boolean ascending = sortDir == Sort.Direction.ASC;
+        for (int k = 0; k < size && pageIds.size() < pageSize; k++) {
+            int slot = order[ascending ? k : size - 1 - k];
+            if (matches != null && !matches.get(slot)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            pageIds.add(rows[slot].id());
+        }
+
+        return new Result(pageIds, total);
+    }
+
+    // null means "every row"
+    private BitSet match(Map<String, Object> filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+
+        BitSet matches = (BitSet) live.clone();
+
+        if (filter.containsKey("className")) {
+            matches.and(classBitmaps.getOrDefault(filter.get("className").toString(), EMPTY));
+        }
+
+        if (filter.containsKey("subject")) {
+            matches.and(subjectBitmaps.getOrDefault(filter.get("subject").toString(), EMPTY));
+        }
+
+        int minAge = filter.containsKey("minAge") ? Integer.parseInt(filter.get("minAge").toString()) : Integer.MIN_VALUE;
+        int maxAge = filter.containsKey("maxAge") ? Integer.parseInt(filter.get("maxAge").toString()) : Integer.MAX_VALUE;
+        String name = filter.containsKey("name") ? filter.get("name").toString().toLowerCase() : null;
+
+        if (name != null || minAge != Integer.MIN_VALUE || maxAge != Integer.MAX_VALUE) {
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                if (ages[slot] < minAge || ages[slot] > maxAge || (name != null && !lowerNames[slot].contains(name))) {
+                    matches.clear(slot);
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    // Binary search of the id order; -1 if the id isn't in the snapshot
+    private int slotOf(long id) {
+        int[] byId = sortOrders.get(EmployeeSortField.ID);
+        int low = 0;
+        int high = byId.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = rows[byId[mid]].id();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return byId[mid];
+            }
+        }
+        return -1;
+    }
+
+    private SlotOrder slotOrder(EmployeeSortField field) {
+        SlotOrder byField = switch (field) {
+            case ID -> (a, b) -> 0;
+            case NAME -> (a, b) -> rows[a].name().compareTo(rows[b].name());
+            case AGE -> (a, b) -> Integer.compare(ages[a], ages[b]);
+            case CLASS_NAME -> (a, b) -> rows[a].className().compareTo(rows[b].className());
+            // Nulls last, as Postgres sorts them in ascending order
+            case EMAIL -> (a, b) -> EMAIL_ORDER.compare(rows[a].email(), rows[b].email());
+            case CREATED_AT -> (a, b) -> TIMESTAMP_ORDER.compare(rows[a].createdAt(), rows[b].createdAt());
+            case UPDATED_AT -> (a, b) -> TIMESTAMP_ORDER.compare(rows[a].updatedAt(), rows[b].updatedAt());
+        };
+        return (a, b) -> {
+            int result = byField.compare(a, b);
+            return result != 0 ? result : Long.compare(rows[a].id(), rows[b].id());
+        };
+    }
+
+    private static void clear(Map<String, BitSet> bitmaps, String key, int slot, Set<BitSet> copies) {
+        BitSet bitmap = writable(bitmaps, key, copies);
+        bitmap.clear(slot);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+
+    private static void set(Map<String, BitSet> bitmaps, String key, int slot, Set<BitSet> copies) {
+        writable(bitmaps, key, copies).set(slot);
+    }
+
+    private static BitSet writable(Map<String, BitSet> bitmaps, String key, Set<BitSet> copies) {
+        BitSet bitmap = bitmaps.get(key);
+        if (bitmap == null) {
+            bitmap = new BitSet();
+            copies.add(bitmap);
+            bitmaps.put(key, bitmap);
+        } else if (!copies.contains(bitmap)) {
+            BitSet copy = (BitSet) bitmap.clone();
+            copies.add(copy);
+            bitmaps.put(key, copy);
+            bitmap = copy;
+        }
+        return bitmap;
+    }
+
+    // The previous order without the removed slots, merged with the added slots (already sorted)
+    private static int[] merge(int[] previous, BitSet removed, int[] added, SlotOrder order) {
+        int kept = 0;
+        for (int slot : previous) {
+            if (!removed.get(slot)) {
+                kept++;
+            }
+        }
+
+        int[] merged = new int[kept + added.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < previous.length || j < added.length) {
+            if (i < previous.length && removed.get(previous[i])) {
+                i++;
+            } else if (j >= added.length || (i < previous.length && order.compare(previous[i], added[j]) <= 0)) {
+                merged[k++] = previous[i++];
+            } else {
+                merged[k++] = added[j++];
+            }
+        }
+        return merged;
+    }
+
+    // Stable merge sort of slot numbers; Arrays.sort has no comparator overload for int[]
+    private static void sort(int[] slots, SlotOrder order) {
+        if (slots.length > 1) {
+            mergeSort(slots.clone(), slots, 0, slots.length, order);
+        }
+    }
+
+    // Sorts src[from, to) into dst; both hold the same values in that range on entry
+    private static void mergeSort(int[] src, int[] dst, int from, int to, SlotOrder order) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(dst, src, from, mid, order);
+        mergeSort(dst, src, mid, to, order);
+
+        for (int i = from, p = from, q = mid; i < to; i++) {
+            if (q >= to || (p < mid && order.compare(src[p], src[q]) <= 0)) {
+                dst[i] = src[p++];
+            } else {
+                dst[i] = src[q++];
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.employee.service;
+
+import com.example.employee.event.AttendanceMarkedEvent;
+import com.example.employee.event.EmployeeChangedEvent;
+import com.example.employee.model.AttendanceRecord;
+import com.example.employee.model.Employee;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans committed employee events out to GraphQL subscribers.
+ * <p>
+ * Subscribers are grouped into one topic per subscription key (class name or employee id),
+ * so an event is only offered to the subscribers that asked for it and idle topics are
+ * removed once their last subscriber leaves. Every subscriber gets its own bounded buffer
+ * that drops the oldest events when the client can't keep up, without slowing anyone else.
+ */
+@Component
+@Slf4j
+public class EmployeeEventBroadcaster {
+
+    private static final String ALL_CLASSES = "*";
+
+    private final EmployeeService employeeService;
+    private final int bufferSize;
+    private final Map<String, Topic<AttendanceMarkedEvent>> attendanceTopics = new ConcurrentHashMap<>();
+    private final Map<Long, Topic<EmployeeUpdate>> employeeTopics = new ConcurrentHashMap<>();
+
+    public EmployeeEventBroadcaster(EmployeeService employeeService,
+                                    @Value("${app.subscriptions.buffer-size:64}") int bufferSize) {
+        this.employeeService = employeeService;
+        this.bufferSize = bufferSize;
+    }
+
+    public Flux<AttendanceMarkedEvent> attendanceMarked(String className) {
+        return subscribe(attendanceTopics, className != null ? className : ALL_CLASSES);
+    }
+
+    public Flux<EmployeeUpdate> employeeChanged(Long id) {
+        return subscribe(employeeTopics, id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceMarked(AttendanceMarkedEvent event) {
+        publish(attendanceTopics.get(event.className()), event);
+        publish(attendanceTopics.get(ALL_CLASSES), event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        Employee employee = event.employee();
+        Topic<EmployeeUpdate> topic = employeeTopics.get(employee.getId());
+        if (topic == null) {
+            return;
+        }
+
+        // Read once here for all subscribers, who map the update on their own threads. The employee
+        // may be detached (write-behind marks publish the cached one outside any transaction),
+        // which getAttendance handles. The write is already stored: a failure here only costs
+        // the subscribers this update.
+        List<AttendanceRecord> attendance;
+        try {
+            attendance = employeeService.getAttendance(employee);
+        } catch (RuntimeException ex) {
+            log.warn("Couldn't read attendance of employee {} for its subscribers: {}", employee.getId(), ex.toString());
+            return;
+        }
+        publish(topic, new EmployeeUpdate(employee, attendance));
+    }
+
+    private <K, T> Flux<T> subscribe(Map<K, Topic<T>> topics, K key) {
+        return Flux.defer(() -> {
+            Topic<T> topic = topics.compute(key, (k, existing) -> {
+                Topic<T> t = existing != null ? existing : new Topic<>();
+                t.subscribers++;
+                return t;
+            });
+
+            return topic.sink.asFlux()
+                    .onBackpressureBuffer(bufferSize,
+                            dropped -> log.debug("Subscriber for {} is too slow, dropping oldest event", key),
+                            BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(signal -> topics.computeIfPresent(key, (k, t) -> --t.subscribers == 0 ? null : t));
+        });
+    }
+
+    private <T> void publish(Topic<T> topic, T value) {
+        if (topic != null) {
+            topic.sink.emitNext(value, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        }
+    }
+
+    /**
+     * A changed employee together with its attendance as of the change.
+     */
+    public record EmployeeUpdate(Employee employee, List<AttendanceRecord> attendance) {
+    }
+
+    private static class Topic<T> {
+        // directBestEffort only delivers to subscribers with demand, a slow one never blocks the others
+        private final Sinks.Many<T> sink = Sinks.many().multicast().directBestEffort();
+        // Only changed inside ConcurrentHashMap.compute for this topic's key
+        private int subscribers;
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.employee.service;
+
+import com.example.employee.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the employee directory straight to an output stream.
+ * <p>
+ * Employees are read page by page with a keyset on id, as scalar tuples, so nothing is attached to
+ * the persistence context. Each page and its attendance (one IN query) are read in a short
+ * read-only transaction, and the connection goes back to the pool before the page is written: a
+ * slow client holds no connection, and memory is bounded by the page size regardless of the
+ * directory size. Every page is consistent in itself; rows changed while the export runs show up
+ * as of the page they fall in.
+ */
+@Service
+@Slf4j
+public class EmployeeExportService {
+
+    public enum ExportFormat {
+        NDJSON,
+        CSV
+    }
+
+    private static final String CSV_HEADER = "id,name,age,className,subjects,email,phone,createdAt,updatedAt,attendance\n";
+
+    private final EmployeeService employeeService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.export.page-size:500}")
+    private int pageSize;
+
+    public EmployeeExportService(EmployeeService employeeService,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.employeeService = employeeService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public long exportEmployees(Map<String, Object> filter, ExportFormat format, boolean includeAttendance,
+                                LocalDate attendanceFrom, LocalDate attendanceTo, OutputStream out) throws IOException {
+        log.info("Exporting employees with filter: {}, format: {}", filter, format);
+
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        AttendanceRange range = includeAttendance ? new AttendanceRange(attendanceFrom, attendanceTo) : null;
+
+        long exported = 0;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            long after = afterId;
+            Page page = readOnlyTransaction.execute(status -> readPage(filter, after, range));
+            if (page.rows().isEmpty()) {
+                break;
+            }
+
+            writePage(page, writer);
+            exported += page.rows().size();
+            if (page.rows().size() < pageSize) {
+                break;
+            }
+            afterId = page.rows().get(page.rows().size() - 1).get(0, Long.class);
+        }
+
+        writer.finish();
+        log.info("Exported {} employees", exported);
+        return exported;
+    }
+
+    private Page readPage(Map<String, Object> filter, long afterId, AttendanceRange range) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> root = query.from(Employee.class);
+
+        query.multiselect(
+                root.get("id"),
+                root.get("name"),
+                root.get("age"),
+                root.get("className"),
+                root.get("email"),
+                root.get("phone"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("subjects")
+        );
+
+        // Walks the primary key index from where the previous page ended
+        Predicate predicate = cb.greaterThan(root.<Long>get("id"), afterId);
+        if (filter != null && !filter.isEmpty()) {
+            Predicate filterPredicate = employeeService.createSpecification(filter).toPredicate(root, query, cb);
+            if (filterPredicate != null) {
+                predicate = cb.and(predicate, filterPredicate);
+            }
+        }
+        query.where(predicate);
+        query.orderBy(cb.asc(root.get("id")));
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(pageSize)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, pageSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+
+        Map<Long, Map<String, Boolean>> attendance = null;
+        if (range != null && !rows.isEmpty()) {
+            attendance = loadAttendance(rows.stream()
+                    .map(row -> row.get(0, Long.class))
+                    .collect(Collectors.toList()), range);
+        }
+        return new Page(rows, attendance);
+    }
+
+    private void writePage(Page page, RowWriter writer) throws IOException {
+        for (Tuple row : page.rows()) {
+            Long id = row.get(0, Long.class);
+            List<String> subjects = row.get(8, List.class);
+            writer.write(row, subjects != null ? subjects : List.of(),
+                    page.attendance() != null ? page.attendance().getOrDefault(id, Map.of()) : null);
+        }
+
+        writer.flush();
+    }
+
+    private Map<Long, Map<String, Boolean>> loadAttendance(List<Long> ids, AttendanceRange range) {
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT e.id, KEY(a), VALUE(a) FROM Employee e JOIN e.attendanceData a " +
+                        "WHERE e.id IN :ids AND KEY(a) BETWEEN :from AND :to ORDER BY KEY(a)", Object[].class)
+                .setParameter("ids", ids)
+                .setParameter("from", range.from())
+                .setParameter("to", range.to())
+                .getResultList();
+
+        Map<Long, Map<String, Boolean>> attendance = new HashMap<>();
+        for (Object[] row : rows) {
+            attendance.computeIfAbsent((Long) row[0], id -> new LinkedHashMap<>())
+                    .put(row[1].toString(), (Boolean) row[2]);
+        }
+        return attendance;
+    }
+
+    private static String timestamp(Tuple row, int index) {
+        LocalDateTime value = row.get(index, LocalDateTime.class);
+        return value != null ? value.toString() : null;
+    }
+
+    private record Page(List<Tuple> rows, Map<Long, Map<String, Boolean>> attendance) {
+    }
+
+    private record AttendanceRange(LocalDate from, LocalDate to) {
+        private AttendanceRange {
+            // Open ends are clamped to dates Postgres can store; bounded ranges prune partitions
+            from = from != null ? from : LocalDate.of(1, 1, 1);
+            to = to != null ? to : LocalDate.of(9999, 12, 31);
+        }
+    }
+
+    private interface RowWriter {
+        void write(Tuple row, List<String> subjects, Map<String, Boolean> attendance) throws IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(Tuple row, List<String> subjects, Map<String, Boolean> attendance) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.get(0, Long.class));
+            generator.writeStringField("name", row.get(1, String.class));
+            generator.writeNumberField("age", row.get(2, Integer.class));
+            generator.writeStringField("className", row.get(3, String.class));
+
+            generator.writeArrayFieldStart("subjects");
+            for (String subject : subjects) {
+                generator.writeString(subject);
+            }
+            generator.writeEndArray();
+
+            generator.writeStringField("email", row.get(4, String.class));
+            generator.writeStringField("phone", row.get(5, String.class));
+            generator.writeStringField("createdAt", timestamp(row, 6));
+            generator.writeStringField("updatedAt", timestamp(row, 7));
+
+            if (attendance != null) {
+                generator.writeArrayFieldStart("attendance");
+                for (Map.Entry<String, Boolean> entry : attendance.entrySet()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("date", entry.getKey());
+                    generator.writeBooleanField("present", entry.getValue());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(Tuple row, List<String> subjects, Map<String, Boolean> attendance) throws IOException {
+            writer.write(String.valueOf(row.get(0, Long.class)));
+            writer.write(',');
+            writer.write(escape(row.get(1, String.class)));
+            writer.write(',');
+            writer.write(String.valueOf(row.get(2, Integer.class)));
+            writer.write(',');
+            writer.write(escape(row.get(3, String.class)));
+            writer.write(',');
+            writer.write(escape(String.join(";", subjects)));
+            writer.write(',');
+            writer.write(escape(row.get(4, String.class)));
+            writer.write(',');
+            writer.write(escape(row.get(5, String.class)));
+            writer.write(',');
+            writer.write(escape(timestamp(row, 6)));
+            writer.write(',');
+            writer.write(escape(timestamp(row, 7)));
+            writer.write(',');
+            if (attendance != null) {
+                writer.write(escape(attendance.entrySet().stream()
+                        .map(entry -> entry.getKey() + "=" + (entry.getValue() ? "1" : "0"))
+                        .collect(Collectors.joining(";"))));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.employee.service;
+
+import com.example.employee.dto.EmployeeSortField;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-process read model for the {@code employees} query, enabled with
+ * {@code app.read-model.enabled=true}.
+ * <p>
+ * The directory is bulk-loaded once and then kept up to date from the employee entries of
+ * {@code employee_change_log} (see {@link EmployeeChangeService}), read from a position taken
+ * before the load. The employees named there are re-read; those that are gone have been deleted.
+ * Each batch of changes is applied to the current {@link EmployeeDirectorySnapshot} with
+ * {@link EmployeeDirectorySnapshot#withChanges}, so queries always run against a complete
+ * snapshot and nothing is rebuilt or aggregated over the whole table. If the log was pruned past
+ * the position, everything is loaded again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.read-model", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeReadModel {
+
+    private static final String SELECT_ROWS =
+            "SELECT id, name, age, class_name, subjects, email, created_at, updated_at FROM employees";
+
+    // Same order and visibility rule as the employeeChanges feed; matches the partial index from V6
+    private static final String CHANGES_SQL =
+            "SELECT tx_id::text AS tx_id, seq, employee_id FROM employee_change_log " +
+            "WHERE (tx_id, seq) > (CAST(? AS xid8), ?) AND tx_id < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "AND kind <> 'ATTENDANCE' " +
+            "ORDER BY tx_id, seq LIMIT ?";
+
+    private static final RowMapper<EmployeeDirectorySnapshot.Row> ROW_MAPPER = (rs, rowNum) -> {
+        Array subjects = rs.getArray("subjects");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+
+        return new EmployeeDirectorySnapshot.Row(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getInt("age"),
+                rs.getString("class_name"),
+                subjects != null ? List.of((String[]) subjects.getArray()) : List.of(),
+                rs.getString("email"),
+                createdAt != null ? createdAt.toLocalDateTime() : null,
+                updatedAt != null ? updatedAt.toLocalDateTime() : null
+        );
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.read-model.change-batch-size:5000}")
+    private int changeBatchSize;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // Position in employee_change_log, only touched under refreshLock
+    private String changeTxId;
+    private long changeSeq;
+
+    private volatile EmployeeDirectorySnapshot snapshot;
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Ids of one page of matching employees, in page order, and the total number of matches.
+     */
+    public EmployeeDirectorySnapshot.Result query(Map<String, Object> filter, EmployeeSortField sortBy,
+                                                  Sort.Direction sortDir, int page, int size) {
+        return snapshot.query(filter, sortBy, sortDir, page, size);
+    }
+
+    @Scheduled(fixedDelayString = "${app.read-model.refresh-interval:1s}")
+    public void refresh() {
+        // Not synchronized: the JDBC calls below would pin a virtual carrier thread
+        refreshLock.lock();
+        try {
+            if (snapshot == null) {
+                reload();
+            } else {
+                applyChanges();
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to refresh the employee read model, serving the previous snapshot", ex);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+
+        // Taken before the load: whatever commits from here on is applied from the change log
+        String head = jdbcTemplate.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text", String.class);
+        List<EmployeeDirectorySnapshot.Row> loaded = jdbcTemplate.query(SELECT_ROWS, ROW_MAPPER);
+
+        snapshot = EmployeeDirectorySnapshot.of(loaded);
+        changeTxId = head;
+        changeSeq = 0;
+
+        log.info("Loaded {} employees into the read model in {} ms",
+                loaded.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void applyChanges() {
+        List<ChangeEntry> entries;
+        do {
+            entries = jdbcTemplate.query(CHANGES_SQL,
+                    (rs, rowNum) -> new ChangeEntry(rs.getString("tx_id"), rs.getLong("seq"), rs.getLong("employee_id")),
+                    changeTxId, changeSeq, changeBatchSize);
+
+            Boolean expired = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM employee_change_log_horizon WHERE (tx_id, seq) > (CAST(? AS xid8), ?))",
+                    Boolean.class, changeTxId, changeSeq);
+            if (Boolean.TRUE.equals(expired)) {
+                log.warn("Employee changes were pruned past the read model's position, reloading it");
+                reload();
+                return;
+            }
+            if (entries.isEmpty()) {
+                return;
+            }
+
+            Set<Long> changedIds = new LinkedHashSet<>();
+            entries.forEach(entry -> changedIds.add(entry.employeeId()));
+
+            // Resolved against the current rows, so the order of the entries doesn't matter
+            List<EmployeeDirectorySnapshot.Row> current = jdbcTemplate.query(SELECT_ROWS + " WHERE id = ANY(?)",
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", changedIds.toArray())),
+                    ROW_MAPPER);
+            Set<Long> deletedIds = new HashSet<>(changedIds);
+            current.forEach(row -> deletedIds.remove(row.id()));
+
+            snapshot = snapshot.withChanges(current, deletedIds);
+
+            ChangeEntry last = entries.get(entries.size() - 1);
+            changeTxId = last.txId();
+            changeSeq = last.seq();
+            log.debug("Applied {} employee changes to the read model", changedIds.size());
+        } while (entries.size() == changeBatchSize);
+    }
+
+    private record ChangeEntry(String txId, long seq, long employeeId) {
+    }
+}
@@ -1,47 +1,182 @@
 package com.example.employee.service;
 
+import com.example.employee.dto.AgeBucket;
+import com.example.employee.dto.CountByKey;
+import com.example.employee.dto.DeleteResult;
 import com.example.employee.dto.EmployeeInput;
+import com.example.employee.dto.EmployeeSortField;
+import com.example.employee.dto.EmployeeStats;
+import com.example.employee.event.AttendanceMarkedEvent;
+import com.example.employee.event.EmployeeChangedEvent;
+import com.example.employee.model.AttendanceRecord;
 import com.example.employee.model.Employee;
 import com.example.employee.repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmployeeService {
 
+    private static final int AGE_BUCKET_WIDTH = 10;
+
     private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ObjectProvider<AttendanceWriteBehindBuffer> attendanceWriteBehind;
+    private final ObjectProvider<EmployeeReadModel> employeeReadModel;
+
+    @Value("${app.employees.write-retry.max-attempts:5}")
+    private int maxWriteAttempts;
+
+    @Value("${app.employees.write-retry.backoff:10ms}")
+    private Duration writeRetryBackoff;
+
+    @Value("${app.employees.by-ids.max:100}")
+    private int maxIdsPerLookup;
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "employees", key = "#id")
     public Employee getEmployeeById(Long id) {
-        log.info("Fetching employee with id: {}", id);
-        return employeeRepository.findByIdWithSubjects(id)
+        log.debug("Fetching employee with id: {}", id);
+        return employeeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
     }
 
-    public Page<Employee> getAllEmployees(Map<String, Object> filter, int page, int size, String sortBy, String sortDir) {
-        log.info("Fetching employees with filter: {}, page: {}, size: {}", filter, page, size);
+    /**
+     * The employee as cached by {@link #getEmployeeById}, or null; lets read paths that bypass JPA
+     * answer from the same cache.
+     */
+    public Employee getCachedEmployee(Long id) {
+        Cache cache = cacheManager.getCache("employees");
+        return cache != null ? cache.get(id, Employee.class) : null;
+    }
+
+    /**
+     * Employees in the order of {@code ids}, null where an id doesn't exist. Cached employees come
+     * from one bulk cache lookup; the rest are loaded with a single IN query, together with their
+     * users for the ownership check, and cached in one pass.
+     */
+    @Transactional(readOnly = true)
+    public List<Employee> getEmployeesByIds(List<Long> ids) {
+        if (ids.size() > maxIdsPerLookup) {
+            throw new IllegalArgumentException("At most " + maxIdsPerLookup + " ids can be looked up at once");
+        }
+        log.debug("Fetching employees with ids: {}", ids);
+
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        Map<Long, Employee> found = new HashMap<>();
+
+        Cache cache = cacheManager.getCache("employees");
+        if (cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().getAllPresent(distinct).forEach((id, value) -> {
+                if (value instanceof Employee employee) {
+                    found.put((Long) id, employee);
+                }
+            });
+        } else if (cache != null) {
+            distinct.forEach(id -> {
+                Employee employee = cache.get(id, Employee.class);
+                if (employee != null) {
+                    found.put(id, employee);
+                }
+            });
+        }
+
+        List<Long> missing = distinct.stream()
+                .filter(id -> !found.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            Map<Long, Employee> loaded = employeeRepository.findAllWithUserByIdIn(missing).stream()
+                    .collect(Collectors.toMap(Employee::getId, employee -> employee));
+            found.putAll(loaded);
+
+            if (cache instanceof CaffeineCache caffeineCache) {
+                caffeineCache.getNativeCache().putAll(loaded);
+            } else if (cache != null) {
+                loaded.forEach(cache::put);
+            }
+        }
+
+        List<Employee> employees = new ArrayList<>(ids.size());
+        ids.forEach(id -> employees.add(found.get(id)));
+        return employees;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Employee> getAllEmployees(Map<String, Object> filter, int page, int size,
+                                          EmployeeSortField sortBy, Sort.Direction sortDir) {
+        log.debug("Fetching employees with filter: {}, page: {}, size: {}", filter, page, size);
+
+        if (sortBy == null || sortDir == null) {
+            throw new IllegalArgumentException("Sort field and direction are required");
+        }
 
-        Sort sort = sortDir.equalsIgnoreCase("DESC") ?
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        // id as tiebreaker, in the same direction so the (column, id) index can be scanned either way
+        Sort sort = Sort.by(sortDir, sortBy.getProperty());
+        if (sortBy != EmployeeSortField.ID) {
+            sort = sort.and(Sort.by(sortDir, EmployeeSortField.ID.getProperty()));
+        }
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
+        EmployeeReadModel readModel = employeeReadModel.getIfAvailable();
+        if (readModel != null && readModel.isReady()) {
+            return getAllEmployeesFromReadModel(readModel, filter, pageable, sortBy, sortDir);
+        }
+
         if (filter == null || filter.isEmpty()) {
             return employeeRepository.findAll(pageable);
         }
@@ -50,8 +185,171 @@ public class EmployeeService {
         return employeeRepository.findAll(spec, pageable);
     }
 
+    // Filtering, sorting and counting happen in memory; only the page itself is loaded, by id
+    private Page<Employee> getAllEmployeesFromReadModel(EmployeeReadModel readModel, Map<String, Object> filter,
+                                                        Pageable pageable, EmployeeSortField sortBy, Sort.Direction sortDir) {
+        EmployeeDirectorySnapshot.Result result = readModel.query(
+                filter, sortBy, sortDir, pageable.getPageNumber(), pageable.getPageSize());
+
+        Map<Long, Employee> byId = employeeRepository.findAllById(result.ids()).stream()
+                .collect(Collectors.toMap(Employee::getId, employee -> employee));
+
+        // Rows deleted since the last refresh are simply left out of the page
+        List<Employee> content = result.ids().stream()
+                .map(byId::get)
+                .filter(employee -> employee != null)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    /**
+     * Directory statistics for the employees matching the filter, aggregated in the database.
+     * Headcount per class, the age histogram and the average age come from one GROUP BY
+     * (className, age) query; subject popularity from a GROUP BY over the unnested subjects arrays.
+     * Results are cached until the next employee write.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable("employeeStats")
+    public EmployeeStats getEmployeeStats(Map<String, Object> filter) {
+        log.debug("Computing employee stats with filter: {}", filter);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> byClassAndAge = cb.createTupleQuery();
+        Root<Employee> root = byClassAndAge.from(Employee.class);
+        Expression<Long> headcount = cb.count(root);
+        byClassAndAge.multiselect(root.get("className"), root.get("age"), headcount)
+                .groupBy(root.get("className"), root.get("age"));
+        applyFilter(byClassAndAge, root, cb, filter);
+
+        Map<String, Long> classCounts = new TreeMap<>();
+        Map<Integer, Long> bucketCounts = new TreeMap<>();
+        long total = 0;
+        long ageSum = 0;
+
+        for (Tuple row : entityManager.createQuery(byClassAndAge).getResultList()) {
+            String className = row.get(0, String.class);
+            int age = row.get(1, Integer.class);
+            long count = row.get(2, Long.class);
+
+            classCounts.merge(className, count, Long::sum);
+            bucketCounts.merge(age / AGE_BUCKET_WIDTH * AGE_BUCKET_WIDTH, count, Long::sum);
+            total += count;
+            ageSum += age * count;
+        }
+
+        // Subjects live in an array column, so popularity is counted over the unnested arrays.
+        // DISTINCT per employee, so a subject listed twice still counts one employee.
+        SqlFilter subjectFilter = sqlFilter(filter);
+        Query bySubject = entityManager.createNativeQuery(
+                "SELECT s.subject, count(*) FROM employees e " +
+                "CROSS JOIN LATERAL (SELECT DISTINCT unnest(e.subjects)) AS s(subject)" + subjectFilter.sql() +
+                " GROUP BY s.subject ORDER BY count(*) DESC, s.subject");
+        subjectFilter.params().forEach(bySubject::setParameter);
+
+        List<CountByKey> subjectPopularity = new ArrayList<>();
+        @SuppressWarnings("unchecked")
+        List<Object[]> subjectRows = bySubject.getResultList();
+        for (Object[] row : subjectRows) {
+            subjectPopularity.add(new CountByKey((String) row[0], ((Number) row[1]).longValue()));
+        }
+
+        List<CountByKey> byClassName = new ArrayList<>();
+        classCounts.forEach((className, count) -> byClassName.add(new CountByKey(className, count)));
+        byClassName.sort(Comparator.comparing(CountByKey::getCount).reversed());
+
+        List<AgeBucket> ageHistogram = new ArrayList<>();
+        bucketCounts.forEach((from, count) -> ageHistogram.add(new AgeBucket(from, from + AGE_BUCKET_WIDTH - 1, count)));
+
+        return EmployeeStats.builder()
+                .totalEmployees(total)
+                .averageAge(total > 0 ? (double) ageSum / total : null)
+                .byClassName(byClassName)
+                .ageHistogram(ageHistogram)
+                .subjectPopularity(subjectPopularity)
+                .build();
+    }
+
+    /**
+     * Change marker of one employee for HTTP validators, read without loading the employee: its
+     * version and the version of its attendance. A cached employee is answered from the cache,
+     * since that is what the query will return. Null while attendance marks for the employee are
+     * still buffered.
+     */
+    @Transactional(readOnly = true)
+    public DataVersion getEmployeeVersion(Long id) {
+        AttendanceWriteBehindBuffer writeBehind = attendanceWriteBehind.getIfAvailable();
+        if (writeBehind != null && writeBehind.hasPending(id)) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> attendanceRows = entityManager.createNativeQuery(
+                        "SELECT version, updated_at FROM employee_attendance_version WHERE employee_id = :id")
+                .setParameter("id", id)
+                .getResultList();
+        long attendanceVersion = attendanceRows.isEmpty() ? 0 : ((Number) attendanceRows.get(0)[0]).longValue();
+        LocalDateTime attendanceUpdatedAt = attendanceRows.isEmpty() ? null : toLocalDateTime(attendanceRows.get(0)[1]);
+
+        Cache cache = cacheManager.getCache("employees");
+        Employee cached = cache != null ? cache.get(id, Employee.class) : null;
+        if (cached != null) {
+            return new DataVersion(id + ":" + cached.getVersion() + ":" + attendanceVersion,
+                    latest(cached.getUpdatedAt(), attendanceUpdatedAt));
+        }
+
+        List<Tuple> rows = entityManager.createQuery(
+                        "SELECT e.version, e.updatedAt FROM Employee e WHERE e.id = :id", Tuple.class)
+                .setParameter("id", id)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return new DataVersion(id + ":missing", null);
+        }
+        return new DataVersion(id + ":" + rows.get(0).get(0) + ":" + attendanceVersion,
+                latest(rows.get(0).get(1, LocalDateTime.class), attendanceUpdatedAt));
+    }
+
+    /**
+     * Change marker of the employees matching the filter: their count, the sum of their attendance
+     * versions and the latest updatedAt of either, so inserts, updates, attendance marks, archival
+     * and deletes all move it. Null when list queries are served from the read model or attendance
+     * marks are buffered, as those aren't reflected.
+     */
+    @Transactional(readOnly = true)
+    public DataVersion getDirectoryVersion(Map<String, Object> filter) {
+        AttendanceWriteBehindBuffer writeBehind = attendanceWriteBehind.getIfAvailable();
+        if (employeeReadModel.getIfAvailable() != null || (writeBehind != null && writeBehind.hasPending())) {
+            return null;
+        }
+
+        SqlFilter sqlFilter = sqlFilter(filter);
+        Query query = entityManager.createNativeQuery(
+                "SELECT count(*), coalesce(sum(v.version), 0), max(e.updated_at), max(v.updated_at) " +
+                "FROM employees e LEFT JOIN employee_attendance_version v ON v.employee_id = e.id" + sqlFilter.sql());
+        sqlFilter.params().forEach(query::setParameter);
+
+        Object[] row = (Object[]) query.getSingleResult();
+        return new DataVersion("directory:" + row[0] + ":" + row[1],
+                latest(toLocalDateTime(row[2]), toLocalDateTime(row[3])));
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null || b == null) {
+            return a != null ? a : b;
+        }
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
     @Transactional
-    @CacheEvict(value = "employees", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "employees", allEntries = true),
+            @CacheEvict(value = "employeeStats", allEntries = true)
+    })
     public Employee addEmployee(EmployeeInput input) {
         log.info("Adding new employee: {}", input.getName());
 
@@ -69,62 +367,292 @@ public class EmployeeService {
         return employeeRepository.save(employee);
     }
 
-    @Transactional
-    @CacheEvict(value = "employees", key = "#id")
+    /**
+     * Applies the input on top of the latest committed version of the employee. A concurrent
+     * update makes the version check fail at commit; the whole read-modify-write is then retried
+     * against fresh state, up to {@code app.employees.write-retry.max-attempts} times.
+     */
+    @Caching(evict = {
+            @CacheEvict(value = "employees", key = "#id"),
+            @CacheEvict(value = "employeeStats", allEntries = true)
+    })
     public Employee updateEmployee(Long id, EmployeeInput input) {
-        log.info("Updating employee with id: {}", id);
-
-        Employee employee = getEmployeeById(id);
-
-        employee.setName(input.getName());
-        employee.setAge(input.getAge());
-        employee.setClassName(input.getClassName());
-        employee.setSubjects(input.getSubjects());
-        employee.setEmail(input.getEmail());
-        employee.setPhone(input.getPhone());
-
-        return employeeRepository.save(employee);
+        log.debug("Updating employee with id: {}", id);
+
+        return retryOnConflict(id, () -> transactionTemplate.execute(status -> {
+            Employee employee = getEmployeeForUpdate(id);
+
+            employee.setName(input.getName());
+            employee.setAge(input.getAge());
+            employee.setClassName(input.getClassName());
+            employee.setSubjects(input.getSubjects());
+            employee.setEmail(input.getEmail());
+            employee.setPhone(input.getPhone());
+
+            Employee saved = employeeRepository.save(employee);
+            eventPublisher.publishEvent(new EmployeeChangedEvent(saved));
+            return saved;
+        }));
     }
 
-    @Transactional
-    @CacheEvict(value = "employees", key = "#id")
     public boolean deleteEmployee(Long id) {
         log.info("Deleting employee with id: {}", id);
 
-        if (!employeeRepository.existsById(id)) {
+        if (deleteEmployees(List.of(id)).getDeleted() == 0) {
             throw new RuntimeException("Employee not found with id: " + id);
         }
 
-        employeeRepository.deleteById(id);
         return true;
     }
 
-    @Transactional
-    @CacheEvict(value = "employees", key = "#employeeId")
+    /**
+     * Deletes the employees with the given ids in a single statement, without loading them.
+     * Unknown ids are ignored; the result tells how many rows were actually deleted.
+     */
+    public DeleteResult deleteEmployees(Collection<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        log.info("Deleting {} employees by id", distinctIds.size());
+
+        if (distinctIds.isEmpty()) {
+            return new DeleteResult(0, 0L);
+        }
+
+        Integer deleted = transactionTemplate.execute(status -> employeeRepository.deleteAllByIdIn(distinctIds));
+        evictEmployees(distinctIds);
+        return new DeleteResult(distinctIds.size(), deleted.longValue());
+    }
+
+    /**
+     * Deletes every employee matching the filter with one set-based DELETE. An empty filter is
+     * rejected rather than treated as "delete everything".
+     */
+    @Caching(evict = {
+            @CacheEvict(value = "employees", allEntries = true),
+            @CacheEvict(value = "employeeStats", allEntries = true)
+    })
+    public DeleteResult deleteEmployeesMatching(Map<String, Object> filter) {
+        log.info("Deleting employees with filter: {}", filter);
+
+        if (filter == null || filter.isEmpty()) {
+            throw new IllegalArgumentException("A non-empty filter is required to delete employees by filter");
+        }
+
+        Long deleted = transactionTemplate.execute(status -> employeeRepository.delete(createSpecification(filter)));
+        return new DeleteResult(null, deleted);
+    }
+
+    /**
+     * Stores an attendance mark. In write-behind mode the mark is appended to the local log and
+     * acknowledged without a database round trip; otherwise the single attendance row is upserted
+     * in its own transaction, without reading or versioning the rest of the employee.
+     */
     public Employee markAttendance(Long employeeId, String date, Boolean present) {
-        log.info("Marking attendance for employee: {}, date: {}, present: {}", employeeId, date, present);
+        log.debug("Marking attendance for employee: {}, date: {}, present: {}", employeeId, date, present);
 
-        Employee employee = getEmployeeById(employeeId);
-        // FIX: Call the getter for the raw JPA Map data: getAttendanceData().
-        // If the Employee model provided by you uses @Data, calling getAttendance()
-        // would technically work since Lombok generates it, but for clarity and
-        // robustness, we call the specific map getter, assuming you added
-        // 'getAttendanceData()' to your model as suggested.
-        // If you did NOT add 'getAttendanceData()', you should still call
-        // the default Lombok getter which accesses the map field.
+        LocalDate attendanceDate = parseAttendanceDate(date);
 
-        // Assuming the underlying JPA field is now 'attendanceData'
-        // and you added 'getAttendanceData()':
-        // employee.getAttendanceData().put(date, present);
+        AttendanceWriteBehindBuffer writeBehind = attendanceWriteBehind.getIfAvailable();
+        if (writeBehind != null) {
+            Employee employee = getEmployeeCacheFirst(employeeId);
+            if (writeBehind.tryAccept(employeeId, attendanceDate, present)) {
+                publishAttendanceEvents(employee, attendanceDate, present);
+                return employee;
+            }
+            log.warn("Attendance write-behind log is full, storing mark for employee {} synchronously", employeeId);
+            // Older buffered marks must not overwrite this one when they are flushed later
+            writeBehind.flush();
+        }
 
-        // Using the Lombok-generated getter for the original field name (which
-        // still points to the map field if you only renamed the field in the model):
-        employee.getAttendanceData().put(date, present); // Using the explicit Map getter
+        Employee saved = transactionTemplate.execute(status -> {
+            if (!employeeRepository.existsById(employeeId)) {
+                throw new RuntimeException("Employee not found with id: " + employeeId);
+            }
+            employeeRepository.upsertAttendance(employeeId, attendanceDate, present);
+            employeeRepository.bumpAttendanceVersion(employeeId);
 
-        return employeeRepository.save(employee);
+            // The upsert cleared the persistence context, so this sees the new row
+            Employee result = getEmployeeById(employeeId);
+            publishAttendanceEvents(result, attendanceDate, present);
+            return result;
+        });
+
+        evictEmployee(employeeId);
+        return saved;
+    }
+
+    /**
+     * Attendance of an employee, including marks still waiting in the write-behind buffer.
+     */
+    public List<AttendanceRecord> getAttendance(Employee employee) {
+        Map<LocalDate, Boolean> stored = getStoredAttendance(employee);
+
+        AttendanceWriteBehindBuffer writeBehind = attendanceWriteBehind.getIfAvailable();
+        Map<LocalDate, Boolean> attendance = stored;
+        if (writeBehind != null && writeBehind.hasPending(employee.getId())) {
+            attendance = new HashMap<>(stored);
+            writeBehind.mergePendingInto(employee.getId(), attendance);
+        }
+
+        return attendance.entrySet().stream()
+                .map(entry -> new AttendanceRecord(entry.getKey().toString(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    // Lazy loading only works while the persistence context that loaded the employee is open.
+    // Cached employees, and data fetchers running on another thread than the request (virtual
+    // thread mode), see a detached entity; their attendance is read with a query instead.
+    private Map<LocalDate, Boolean> getStoredAttendance(Employee employee) {
+        Map<LocalDate, Boolean> attendance = employee.getAttendanceData();
+        if (Hibernate.isInitialized(attendance) || entityManager.contains(employee)) {
+            return attendance;
+        }
+
+        return transactionTemplate.execute(status -> {
+            Map<LocalDate, Boolean> loaded = new HashMap<>();
+            entityManager.createQuery(
+                            "SELECT KEY(a), VALUE(a) FROM Employee e JOIN e.attendanceData a WHERE e.id = :id",
+                            Object[].class)
+                    .setParameter("id", employee.getId())
+                    .getResultList()
+                    .forEach(row -> loaded.put((LocalDate) row[0], (Boolean) row[1]));
+            return loaded;
+        });
+    }
+
+    /**
+     * Attendance that has been moved out of the live partitions into employee_attendance_archive.
+     * Each archive row packs one employee-month into two day bitmasks, which are unpacked here.
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceRecord> getArchivedAttendance(Long employeeId) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT month, recorded_days, present_days FROM employee_attendance_archive " +
+                        "WHERE employee_id = :employeeId ORDER BY month")
+                .setParameter("employeeId", employeeId)
+                .getResultList();
+
+        List<AttendanceRecord> records = new ArrayList<>();
+        for (Object[] row : rows) {
+            LocalDate month = row[0] instanceof Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) row[0];
+            int recorded = ((Number) row[1]).intValue();
+            int presentDays = ((Number) row[2]).intValue();
+
+            for (int day = 0; day < month.lengthOfMonth(); day++) {
+                if ((recorded & (1 << day)) != 0) {
+                    records.add(new AttendanceRecord(month.plusDays(day).toString(), (presentDays & (1 << day)) != 0));
+                }
+            }
+        }
+        return records;
+    }
+
+    private static LocalDate parseAttendanceDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid attendance date, expected yyyy-MM-dd: " + date);
+        }
+    }
+
+    private void publishAttendanceEvents(Employee employee, LocalDate date, Boolean present) {
+        eventPublisher.publishEvent(new AttendanceMarkedEvent(
+                employee.getId(), employee.getName(), employee.getClassName(), date.toString(), present));
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employee));
+    }
+
+    // Cache-first lookup that doesn't go through the proxy, for paths that must avoid the database
+    private Employee getEmployeeCacheFirst(Long id) {
+        Cache cache = cacheManager.getCache("employees");
+        Employee employee = cache != null ? cache.get(id, Employee.class) : null;
+
+        if (employee == null) {
+            employee = employeeRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+            if (cache != null) {
+                cache.put(id, employee);
+            }
+        }
+
+        return employee;
+    }
+
+    private <T> T retryOnConflict(Long id, Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxWriteAttempts) {
+                    log.warn("Giving up on employee {} after {} conflicting attempts", id, attempt);
+                    throw ex;
+                }
+                log.debug("Concurrent update of employee {}, retrying (attempt {})", id, attempt);
+
+                // With open-in-view the stale entity is still in the request's persistence context
+                entityManager.clear();
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Exponential backoff with full jitter so retrying writers spread out instead of colliding again
+    private void backOff(int attempt) {
+        long ceiling = writeRetryBackoff.toMillis() << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying employee update", ex);
+        }
     }
 
-    private Specification<Employee> createSpecification(Map<String, Object> filter) {
+    private void evictEmployees(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache("employees");
+        if (cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().invalidateAll(ids);
+        } else if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+
+        Cache stats = cacheManager.getCache("employeeStats");
+        if (stats != null) {
+            stats.clear();
+        }
+    }
+
+    private void evictEmployee(Long id) {
+        Cache cache = cacheManager.getCache("employees");
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+
+    // With open-in-view the ownership check in the resolvers may already have loaded this
+    // employee through a read-only transaction, which leaves it read-only in the shared
+    // persistence context and would silently drop our changes on flush.
+    private Employee getEmployeeForUpdate(Long id) {
+        Employee employee = getEmployeeById(id);
+
+        Session session = entityManager.unwrap(Session.class);
+        if (session.contains(employee) && session.isReadOnly(employee)) {
+            session.setReadOnly(employee, false);
+        }
+
+        return employee;
+    }
+
+    private void applyFilter(CriteriaQuery<?> query, Root<Employee> root, CriteriaBuilder cb, Map<String, Object> filter) {
+        if (filter == null || filter.isEmpty()) {
+            return;
+        }
+
+        Predicate predicate = createSpecification(filter).toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    Specification<Employee> createSpecification(Map<String, Object> filter) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -157,14 +685,57 @@ public class EmployeeService {
             }
 
             if (filter.containsKey("subject")) {
-                // Note: This requires a join to the subjects collection
-                predicates.add(criteriaBuilder.isMember(
-                        filter.get("subject").toString(),
-                        root.get("subjects")
-                ));
+                // Rendered as subjects @> ARRAY[?], which can use the GIN index on subjects
+                predicates.add(criteriaBuilder.isTrue(criteriaBuilder.function(
+                        "array_contains",
+                        Boolean.class,
+                        root.get("subjects"),
+                        criteriaBuilder.literal(filter.get("subject").toString())
+                )));
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
-}
\ No newline at end of file
+
+    // Mirrors createSpecification for native queries
+    private static SqlFilter sqlFilter(Map<String, Object> filter) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (filter == null) {
+            return new SqlFilter("", params);
+        }
+
+        if (filter.containsKey("name")) {
+            conditions.add("lower(e.name) LIKE :name");
+            params.put("name", "%" + filter.get("name").toString().toLowerCase() + "%");
+        }
+        if (filter.containsKey("minAge")) {
+            conditions.add("e.age >= :minAge");
+            params.put("minAge", Integer.parseInt(filter.get("minAge").toString()));
+        }
+        if (filter.containsKey("maxAge")) {
+            conditions.add("e.age <= :maxAge");
+            params.put("maxAge", Integer.parseInt(filter.get("maxAge").toString()));
+        }
+        if (filter.containsKey("className")) {
+            conditions.add("e.class_name = :className");
+            params.put("className", filter.get("className").toString());
+        }
+        if (filter.containsKey("subject")) {
+            conditions.add("e.subjects @> ARRAY[CAST(:subject AS text)]");
+            params.put("subject", filter.get("subject").toString());
+        }
+
+        return new SqlFilter(conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions), params);
+    }
+
+    private record SqlFilter(String sql, Map<String, Object> params) {
+    }
+
+    /**
+     * Opaque change marker and last modification time (null if unknown) of some served data.
+     */
+    public record DataVersion(String tag, LocalDateTime lastModified) {
+    }
+}
@@ -0,0 +1,38 @@
+-- Schema as of the move from ddl-auto to Flyway. Databases created by ddl-auto are migrated
+-- from version 0 (spring.flyway.baseline-version), so every statement tolerates objects that
+-- already exist, possibly from an older revision of the entities.
+
+CREATE TABLE IF NOT EXISTS employees (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       varchar(255) NOT NULL,
+    age        integer      NOT NULL,
+    class_name varchar(255) NOT NULL,
+    email      varchar(255) UNIQUE,
+    phone      varchar(255),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6)
+);
+
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS subjects text[] NOT NULL DEFAULT '{}';
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+-- One (column, id) index per EmployeeSortField, plus class_name filter + sort combinations
+CREATE INDEX IF NOT EXISTS idx_employee_name_id ON employees (name, id);
+CREATE INDEX IF NOT EXISTS idx_employee_age_id ON employees (age, id);
+CREATE INDEX IF NOT EXISTS idx_employee_email_id ON employees (email, id);
+CREATE INDEX IF NOT EXISTS idx_employee_created_at_id ON employees (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_employee_updated_at_id ON employees (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_employee_class_id ON employees (class_name, id);
+CREATE INDEX IF NOT EXISTS idx_employee_class_name_id ON employees (class_name, name, id);
+CREATE INDEX IF NOT EXISTS idx_employee_class_age_id ON employees (class_name, age, id);
+
+CREATE TABLE IF NOT EXISTS users (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    varchar(50)  NOT NULL UNIQUE,
+    password    varchar(255) NOT NULL,
+    role        varchar(20)  NOT NULL CHECK (role IN ('ADMIN', 'EMPLOYEE')),
+    employee_id bigint UNIQUE REFERENCES employees (id) ON DELETE CASCADE,
+    created_at  timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_username ON users (username);
@@ -0,0 +1,16 @@
+-- Subjects moved from the employee_subjects collection table into employees.subjects (text[]).
+-- The old table is kept as employee_subjects_legacy until the copy has been checked.
+DO $$
+BEGIN
+    IF to_regclass('employee_subjects') IS NOT NULL THEN
+        UPDATE employees e SET subjects = s.subjects
+        FROM (SELECT employee_id, array_agg(subject) AS subjects FROM employee_subjects
+              WHERE subject IS NOT NULL GROUP BY employee_id) s
+        WHERE e.id = s.employee_id;
+
+        ALTER TABLE employee_subjects RENAME TO employee_subjects_legacy;
+    END IF;
+END $$;
+
+-- Serves the subject filter (subjects @> ARRAY[?]); JPA index definitions can't declare GIN
+CREATE INDEX IF NOT EXISTS idx_employee_subjects ON employees USING gin (subjects);
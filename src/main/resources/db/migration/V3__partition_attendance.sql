@@ -0,0 +1,54 @@
+-- employee_attendance becomes a table with a real date column, range-partitioned by month.
+-- Monthly partitions are created by AttendancePartitionMaintainer, which also moves the rows
+-- copied here out of the default partition. The old table is kept as employee_attendance_legacy
+-- only if some dates couldn't be converted.
+DO $$
+DECLARE
+    legacy_constraint text;
+    migrating boolean := false;
+    total bigint;
+    copied bigint;
+BEGIN
+    IF to_regclass('employee_attendance') IS NOT NULL
+       AND NOT EXISTS (SELECT 1 FROM pg_class WHERE oid = 'employee_attendance'::regclass AND relkind = 'p') THEN
+        ALTER TABLE employee_attendance RENAME TO employee_attendance_legacy;
+        -- The primary key's index name would clash with the new table's
+        FOR legacy_constraint IN
+            SELECT conname FROM pg_constraint WHERE conrelid = 'employee_attendance_legacy'::regclass
+        LOOP
+            EXECUTE format('ALTER TABLE employee_attendance_legacy RENAME CONSTRAINT %I TO %I',
+                           legacy_constraint, legacy_constraint || '_legacy');
+        END LOOP;
+        migrating := true;
+    END IF;
+
+    IF to_regclass('employee_attendance') IS NULL THEN
+        CREATE TABLE employee_attendance (
+            employee_id     bigint  NOT NULL REFERENCES employees (id) ON DELETE CASCADE,
+            attendance_date date    NOT NULL,
+            present         boolean,
+            PRIMARY KEY (employee_id, attendance_date)
+        ) PARTITION BY RANGE (attendance_date);
+
+        CREATE TABLE employee_attendance_default PARTITION OF employee_attendance DEFAULT;
+
+        -- Date-range scans across employees, e.g. the export's attendance window
+        CREATE INDEX idx_employee_attendance_date ON employee_attendance (attendance_date);
+    END IF;
+
+    IF migrating THEN
+        SELECT count(*) INTO total FROM employee_attendance_legacy;
+
+        INSERT INTO employee_attendance (employee_id, attendance_date, present)
+        SELECT employee_id, attendance_date::text::date, present FROM employee_attendance_legacy
+        WHERE attendance_date::text ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}$';
+        GET DIAGNOSTICS copied = ROW_COUNT;
+
+        IF copied < total THEN
+            RAISE WARNING '% attendance rows have no valid yyyy-MM-dd date and were left in employee_attendance_legacy',
+                total - copied;
+        ELSE
+            DROP TABLE employee_attendance_legacy;
+        END IF;
+    END IF;
+END $$;
@@ -0,0 +1,25 @@
+-- Months folded out of the live partitions, one row of day bitmasks per employee and month
+CREATE TABLE IF NOT EXISTS employee_attendance_archive (
+    employee_id   bigint  NOT NULL REFERENCES employees (id) ON DELETE CASCADE,
+    month         date    NOT NULL,
+    recorded_days integer NOT NULL,
+    present_days  integer NOT NULL,
+    PRIMARY KEY (employee_id, month)
+);
+
+-- ddl-auto created foreign keys without ON DELETE CASCADE, which EmployeeRepository.deleteAllByIdIn
+-- relies on. Partition constraints are inherited from the parent's and left alone.
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN
+        SELECT conrelid::regclass AS referencing_table, conname
+        FROM pg_constraint
+        WHERE contype = 'f' AND confrelid = 'employees'::regclass AND confdeltype <> 'c' AND conparentid = 0
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I, ADD CONSTRAINT %I ' ||
+                       'FOREIGN KEY (employee_id) REFERENCES employees (id) ON DELETE CASCADE',
+                       fk.referencing_table, fk.conname, fk.conname);
+    END LOOP;
+END $$;
@@ -0,0 +1,59 @@
+-- Feed of employeeChanges, written by triggers so every path that touches employees is covered,
+-- native and batched statements included. Entries are read in (tx_id, seq) order up to the
+-- oldest transaction still running, see EmployeeChangeService.
+CREATE TABLE IF NOT EXISTS employee_change_log (
+    seq             bigserial   PRIMARY KEY,
+    tx_id           xid8        NOT NULL DEFAULT pg_current_xact_id(),
+    kind            varchar(16) NOT NULL,
+    employee_id     bigint      NOT NULL,
+    attendance_date date,
+    present         boolean,
+    changed_at      timestamp(6) NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_employee_change_log_tx_seq ON employee_change_log (tx_id, seq);
+CREATE INDEX IF NOT EXISTS idx_employee_change_log_changed_at ON employee_change_log (changed_at);
+
+-- Position below which entries have been pruned; older cursors can't be resumed
+CREATE TABLE IF NOT EXISTS employee_change_log_horizon (
+    id    integer PRIMARY KEY CHECK (id = 1),
+    tx_id xid8    NOT NULL,
+    seq   bigint  NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION log_employee_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO employee_change_log (kind, employee_id) VALUES ('DELETED', OLD.id);
+    ELSE
+        INSERT INTO employee_change_log (kind, employee_id) VALUES ('UPSERTED', NEW.id);
+    END IF;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION log_attendance_change() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO employee_change_log (kind, employee_id, attendance_date, present)
+    VALUES ('ATTENDANCE', NEW.employee_id, NEW.attendance_date, NEW.present);
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS employees_change_log_insert_delete ON employees;
+CREATE TRIGGER employees_change_log_insert_delete
+    AFTER INSERT OR DELETE ON employees
+    FOR EACH ROW EXECUTE FUNCTION log_employee_change();
+
+-- Profile updates go through JPA and bump the version; attendance marks only touch updated_at
+-- and are logged by the attendance trigger instead
+DROP TRIGGER IF EXISTS employees_change_log_update ON employees;
+CREATE TRIGGER employees_change_log_update
+    AFTER UPDATE ON employees
+    FOR EACH ROW WHEN (OLD.version IS DISTINCT FROM NEW.version)
+    EXECUTE FUNCTION log_employee_change();
+
+-- Cloned onto every partition, including those attached later; rows removed by a cascading
+-- employee delete are covered by its tombstone
+DROP TRIGGER IF EXISTS employee_attendance_change_log ON employee_attendance;
+CREATE TRIGGER employee_attendance_change_log
+    AFTER INSERT OR UPDATE ON employee_attendance
+    FOR EACH ROW EXECUTE FUNCTION log_attendance_change();
@@ -0,0 +1,4 @@
+-- The read model follows only employee inserts, updates and deletes; without this it would walk
+-- past every attendance entry on each refresh, see EmployeeReadModel
+CREATE INDEX IF NOT EXISTS idx_employee_change_log_employees
+    ON employee_change_log (tx_id, seq) WHERE kind <> 'ATTENDANCE';
@@ -0,0 +1,8 @@
+-- Change marker of each employee's attendance for HTTP validators. Bumped by every attendance
+-- write and by archival, so marks never update the employees row: no lock on it, no version
+-- bump, no change log entry. No row means no attendance written since this migration.
+CREATE TABLE IF NOT EXISTS employee_attendance_version (
+    employee_id bigint       PRIMARY KEY REFERENCES employees (id) ON DELETE CASCADE,
+    version     bigint       NOT NULL,
+    updated_at  timestamp(6) NOT NULL
+);
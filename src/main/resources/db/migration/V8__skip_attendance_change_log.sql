@@ -0,0 +1,13 @@
+-- Bulk paths that don't change any mark a consumer hasn't seen (the datagen COPY load, rows
+-- moved out of the default partition) set app.skip_attendance_change_log for their transaction,
+-- so they don't flood the feed with one entry per row. Everything else is logged as before.
+CREATE OR REPLACE FUNCTION log_attendance_change() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('app.skip_attendance_change_log', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+
+    INSERT INTO employee_change_log (kind, employee_id, attendance_date, present)
+    VALUES ('ATTENDANCE', NEW.employee_id, NEW.attendance_date, NEW.present);
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
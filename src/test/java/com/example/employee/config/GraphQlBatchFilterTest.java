@@ -0,0 +1,199 @@
+package com.example.employee.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The batch filter in isolation, against a stubbed GraphQL handler: "{ slow }" takes a while,
+ * "{ hang }" never completes, "{ fail }" errors and everything else answers right away.
+ */
+class GraphQlBatchFilterTest {
+
+    private static final TypeReference<List<Map<String, Object>>> RESULTS = new TypeReference<>() {
+    };
+    private static final Pattern BUDGET = Pattern.compile("GraphQL batch timeout of (\\d+) ms exceeded");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private WebGraphQlHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = mock(WebGraphQlHandler.class);
+        when(handler.handleRequest(any())).thenAnswer(invocation -> answer(invocation.getArgument(0)));
+    }
+
+    @Test
+    void resultsComeBackInRequestOrder() throws Exception {
+        List<Map<String, Object>> results = post(filter(Duration.ofSeconds(5)), null,
+                "[{\"query\":\"{ slow }\"},{\"query\":\"{ fast }\"}]");
+
+        assertThat(results).extracting(result -> result.get("data"))
+                .containsExactly(Map.of("field", "slow"), Map.of("field", "fast"));
+    }
+
+    @Test
+    void queriesRunConcurrently() throws Exception {
+        post(filter(Duration.ofSeconds(5)), null,
+                "[{\"query\":\"{ slow }\"},{\"query\":\"{ slow }\"},{\"query\":\"{ slow }\"}]");
+
+        assertThat(maxRunning.get()).isGreaterThan(1);
+    }
+
+    @Test
+    void batchWithMutationRunsOneOperationAtATime() throws Exception {
+        List<Map<String, Object>> results = post(filter(Duration.ofSeconds(5)), null,
+                "[{\"query\":\"{ slow }\"},{\"query\":\"mutation { slow }\"},{\"query\":\"{ slow }\"}]");
+
+        assertThat(results).hasSize(3);
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    void operationsOverTheBudgetGetTimeoutSlots() throws Exception {
+        RequestDeadline deadline = new RequestDeadline(Duration.ofSeconds(30));
+
+        List<Map<String, Object>> results = post(filter(Duration.ofMillis(200)), deadline,
+                "[{\"query\":\"{ fast }\"},{\"query\":\"{ hang }\"}]");
+
+        assertThat(results.get(0)).containsEntry("data", Map.of("field", "fast"));
+        assertThat(error(results.get(1)))
+                .containsEntry("message", "GraphQL batch timeout of 200 ms exceeded")
+                .containsEntry("extensions", Map.of("classification", "TIMEOUT"));
+        assertThat(deadline.isCancelled()).isTrue();
+    }
+
+    @Test
+    void timeoutReportsTheRequestDeadlineWhenItIsShorter() throws Exception {
+        RequestDeadline deadline = new RequestDeadline(Duration.ofMillis(150));
+
+        List<Map<String, Object>> results = post(filter(Duration.ofSeconds(30)), deadline,
+                "[{\"query\":\"{ hang }\"}]");
+
+        Matcher matcher = BUDGET.matcher((String) error(results.get(0)).get("message"));
+        assertThat(matcher.matches()).isTrue();
+        assertThat(Long.parseLong(matcher.group(1))).isLessThanOrEqualTo(150);
+    }
+
+    @Test
+    void mutationQueuedBehindAnExhaustedBudgetIsNotStarted() throws Exception {
+        List<Map<String, Object>> results = post(filter(Duration.ofMillis(200)), null,
+                "[{\"query\":\"mutation { hang }\"},{\"query\":\"mutation { fast }\"}]");
+
+        assertThat(results).extracting(result -> error(result).get("extensions"))
+                .containsOnly(Map.of("classification", "TIMEOUT"));
+        // The second mutation would have answered right away had it been started
+        verify(handler, times(1)).handleRequest(any());
+    }
+
+    @Test
+    void failedOperationIsClassified() throws Exception {
+        List<Map<String, Object>> results = post(filter(Duration.ofSeconds(5)), null,
+                "[{\"query\":\"{ fail }\"},{\"query\":\"{ fast }\"}]");
+
+        assertThat(error(results.get(0)))
+                .containsEntry("message", "boom")
+                .containsEntry("extensions", Map.of("classification", "INTERNAL_ERROR"));
+        assertThat(results.get(1)).containsEntry("data", Map.of("field", "fast"));
+    }
+
+    @Test
+    void singleOperationIsPassedOnWithItsBody() throws Exception {
+        String body = "{\"query\":\"{ fast }\"}";
+        MockHttpServletRequest request = request(body, null);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter(Duration.ofSeconds(5)).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                .isEqualTo(body);
+        verify(handler, never()).handleRequest(any());
+    }
+
+    @Test
+    void oversizedBatchIsRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter(Duration.ofSeconds(5)).doFilter(request("[{\"query\":\"{ fast }\"},{\"query\":\"{ fast }\"},"
+                + "{\"query\":\"{ fast }\"},{\"query\":\"{ fast }\"}]", null), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+
+    private Mono<WebGraphQlResponse> answer(WebGraphQlRequest request) {
+        String document = request.getDocument();
+        if (document.contains("hang")) {
+            return Mono.never();
+        }
+        if (document.contains("fail")) {
+            return Mono.error(new IllegalStateException("boom"));
+        }
+
+        String field = document.contains("slow") ? "slow" : "fast";
+        Duration delay = field.equals("slow") ? Duration.ofMillis(100) : Duration.ZERO;
+        return Mono.defer(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    return Mono.delay(delay).then(GraphQlHttpCachingFilterTest.response(Map.of("field", field)));
+                })
+                // Before the result is passed on, so the next serial operation can't overlap
+                .doOnTerminate(running::decrementAndGet);
+    }
+
+    // Three operations at most, so oversizedBatchIsRejected has something to reject
+    private GraphQlBatchFilter filter(Duration timeout) {
+        return new GraphQlBatchFilter(new GraphQlFilterExecutor(handler, objectMapper), objectMapper,
+                "/graphql", 3, 4, timeout);
+    }
+
+    private List<Map<String, Object>> post(GraphQlBatchFilter filter, RequestDeadline deadline, String body)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(body, deadline), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        return objectMapper.readValue(response.getContentAsByteArray(), RESULTS);
+    }
+
+    private static MockHttpServletRequest request(String body, RequestDeadline deadline) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (deadline != null) {
+            request.setAttribute(RequestDeadline.ATTRIBUTE, deadline);
+        }
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> error(Map<String, Object> result) {
+        return ((List<Map<String, Object>>) result.get("errors")).get(0);
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.employee.config;
+
+import com.example.employee.model.Employee;
+import com.example.employee.model.User;
+import com.example.employee.service.EmployeeService;
+import com.example.employee.service.EmployeeService.DataVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.support.DefaultExecutionGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The GET filter in isolation: validators, 304 decisions and the ownership check in front of them,
+ * with the GraphQL handler and the employee service stubbed.
+ */
+class GraphQlHttpCachingFilterTest {
+
+    private static final String EMPLOYEE_QUERY = "{ employee(id: 1) { name } }";
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private WebGraphQlHandler handler;
+    private EmployeeService employeeService;
+    private GraphQlHttpCachingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        handler = mock(WebGraphQlHandler.class);
+        employeeService = mock(EmployeeService.class);
+        filter = filter(Duration.ofSeconds(5));
+
+        when(handler.handleRequest(any())).thenReturn(response(Map.of("employee", Map.of("name", "Bob"))));
+        when(employeeService.getEmployeeVersion(1L)).thenReturn(new DataVersion("1:0:0", UPDATED_AT));
+        when(employeeService.getEmployeeById(1L)).thenReturn(ownedBy("bob"));
+        authenticate("admin", "ROLE_ADMIN");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithoutRunningTheQuery() throws Exception {
+        String etag = get(EMPLOYEE_QUERY).getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+
+        MockHttpServletRequest revalidation = request(EMPLOYEE_QUERY);
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = execute(revalidation);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        verify(handler, times(1)).handleRequest(any());
+    }
+
+    @Test
+    void strongAndListedEtagsMatchTheWeakOne() throws Exception {
+        String etag = get(EMPLOYEE_QUERY).getHeader(HttpHeaders.ETAG);
+        String opaque = etag.substring(2);
+
+        assertThat(revalidate(EMPLOYEE_QUERY, HttpHeaders.IF_NONE_MATCH, opaque).getStatus()).isEqualTo(304);
+        assertThat(revalidate(EMPLOYEE_QUERY, HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag).getStatus()).isEqualTo(304);
+        assertThat(revalidate(EMPLOYEE_QUERY, HttpHeaders.IF_NONE_MATCH, "W/\"other\"").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void etagDependsOnSelectionAndVariables() throws Exception {
+        String name = get(EMPLOYEE_QUERY).getHeader(HttpHeaders.ETAG);
+        String nameAndAge = get("{ employee(id: 1) { name age } }").getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest withVariables = request("query($id: ID!) { employee(id: $id) { name } }");
+        withVariables.setParameter("variables", "{\"id\": 1}");
+        String variables = execute(withVariables).getHeader(HttpHeaders.ETAG);
+
+        assertThat(name).isNotNull();
+        assertThat(nameAndAge).isNotNull().isNotEqualTo(name);
+        assertThat(variables).isNotNull().isNotIn(name, nameAndAge);
+    }
+
+    @Test
+    void etagChangesWithTheVersion() throws Exception {
+        String before = get(EMPLOYEE_QUERY).getHeader(HttpHeaders.ETAG);
+        when(employeeService.getEmployeeVersion(1L)).thenReturn(new DataVersion("1:0:1", UPDATED_AT.plusMinutes(1)));
+
+        MockHttpServletResponse response = revalidate(EMPLOYEE_QUERY, HttpHeaders.IF_NONE_MATCH, before);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+    }
+
+    @Test
+    void ifModifiedSinceIsUsedWithoutIfNoneMatch() throws Exception {
+        long lastModified = UPDATED_AT.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        MockHttpServletRequest notModified = request(EMPLOYEE_QUERY);
+        notModified.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        assertThat(execute(notModified).getStatus()).isEqualTo(304);
+
+        MockHttpServletRequest modified = request(EMPLOYEE_QUERY);
+        modified.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified - 1000);
+        assertThat(execute(modified).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() throws Exception {
+        long lastModified = UPDATED_AT.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        MockHttpServletRequest request = request(EMPLOYEE_QUERY);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"stale\"");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+
+        assertThat(execute(request).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void foreignProfileGetsNoValidators() throws Exception {
+        authenticate("alice", "ROLE_EMPLOYEE");
+
+        MockHttpServletResponse probe = revalidate(EMPLOYEE_QUERY, HttpHeaders.IF_NONE_MATCH, "*");
+
+        assertThat(probe.getStatus()).isEqualTo(200);
+        assertThat(probe.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(probe.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-store");
+        verify(employeeService, never()).getEmployeeVersion(any());
+    }
+
+    @Test
+    void unknownIdGetsNoValidators() throws Exception {
+        authenticate("alice", "ROLE_EMPLOYEE");
+        when(employeeService.getEmployeeById(1L)).thenThrow(new RuntimeException("Employee not found with id: 1"));
+
+        MockHttpServletResponse probe = revalidate(EMPLOYEE_QUERY, HttpHeaders.IF_NONE_MATCH, "*");
+
+        assertThat(probe.getStatus()).isEqualTo(200);
+        assertThat(probe.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    @Test
+    void ownProfileGetsValidators() throws Exception {
+        authenticate("bob", "ROLE_EMPLOYEE");
+
+        assertThat(revalidate(EMPLOYEE_QUERY, HttpHeaders.IF_NONE_MATCH, "*").getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void mutationsAreRejected() throws Exception {
+        MockHttpServletResponse response = get("mutation { deleteEmployee(id: 1) }");
+
+        assertThat(response.getStatus()).isEqualTo(405);
+        assertThat(response.getHeader(HttpHeaders.ALLOW)).isEqualTo("POST");
+        verify(handler, never()).handleRequest(any());
+    }
+
+    @Test
+    void timeoutIsAnsweredWithTimeoutError() throws Exception {
+        filter = filter(Duration.ofMillis(50));
+        when(handler.handleRequest(any())).thenReturn(Mono.never());
+
+        MockHttpServletResponse response = get(EMPLOYEE_QUERY);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-store");
+        assertThat(response.getContentAsString()).contains("\"classification\":\"TIMEOUT\"");
+    }
+
+    private GraphQlHttpCachingFilter filter(Duration timeout) {
+        return new GraphQlHttpCachingFilter(new GraphQlFilterExecutor(handler, objectMapper),
+                employeeService, objectMapper, "/graphql", timeout);
+    }
+
+    private MockHttpServletResponse get(String query) throws ServletException, IOException {
+        return execute(request(query));
+    }
+
+    private MockHttpServletResponse revalidate(String query, String header, String value)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = request(query);
+        request.addHeader(header, value);
+        return execute(request);
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/graphql");
+        request.setParameter("query", query);
+        return request;
+    }
+
+    private static Employee ownedBy(String username) {
+        return Employee.builder()
+                .id(1L)
+                .name("Bob")
+                .user(User.builder().username(username).build())
+                .build();
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    static Mono<WebGraphQlResponse> response(Map<String, Object> data) {
+        ExecutionResult result = ExecutionResult.newExecutionResult().data(data).build();
+        return Mono.just(new WebGraphQlResponse(
+                new DefaultExecutionGraphQlResponse(ExecutionInput.newExecutionInput("{}").build(), result)));
+    }
+}
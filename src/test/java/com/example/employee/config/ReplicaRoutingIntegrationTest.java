@@ -0,0 +1,137 @@
+package com.example.employee.config;
+
+import com.example.employee.dto.EmployeeInput;
+import com.example.employee.model.AttendanceRecord;
+import com.example.employee.model.Employee;
+import com.example.employee.service.EmployeeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays what a non-admin updateEmployee or markAttendance does inside one open-in-view request:
+ * the ownership check reads the employee in a read-only transaction, which goes to the replica,
+ * then the write runs in the same Session. The "replica" is the primary database reached through
+ * a read-only pool with its own application_name, so a write routed to it would fail.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.lag-check-interval=1h"
+})
+class ReplicaRoutingIntegrationTest {
+
+    private static final String REPLICA_APPLICATION_NAME = "replica-routing-test";
+    private static final String APPLICATION_NAME = "SELECT current_setting('application_name')";
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        String url = System.getenv("SPRING_DATASOURCE_URL");
+        registry.add("app.datasource.routing.replicas[0].url",
+                () -> url + (url.contains("?") ? "&" : "?") + "ApplicationName=" + REPLICA_APPLICATION_NAME);
+    }
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long employeeId;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (employeeId != null) {
+            employeeService.deleteEmployee(employeeId);
+        }
+    }
+
+    @Test
+    void writeAfterOwnershipReadInTheSameRequestGoesToThePrimary() {
+        replicaLagMonitor.checkReplicas();
+        assertThat(replicaLagMonitor.getHealthyReplicas()).containsExactly("replica-0");
+
+        // Created before anyone is authenticated, so no read-your-writes pinning applies below
+        employeeId = employeeService.addEmployee(input("Routing Test")).getId();
+        cacheManager.getCache("employees").evict(employeeId);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "routing-" + UUID.randomUUID(), null, List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE"))));
+
+        // What OpenEntityManagerInViewInterceptor does for the duration of a request
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            String readBy = readOnly.execute(status -> {
+                employeeService.getEmployeeById(employeeId);
+                return jdbcTemplate.queryForObject(APPLICATION_NAME, String.class);
+            });
+            assertThat(readBy).isEqualTo(REPLICA_APPLICATION_NAME);
+
+            employeeService.updateEmployee(employeeId, input("Routing Test Updated"));
+            employeeService.markAttendance(employeeId, "2024-03-01", true);
+
+            String writtenBy = readWrite.execute(status -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+            assertThat(writtenBy).isNotEqualTo(REPLICA_APPLICATION_NAME);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(entityManager);
+        }
+
+        SecurityContextHolder.clearContext();
+        cacheManager.getCache("employees").evict(employeeId);
+        Employee stored = employeeService.getEmployeeById(employeeId);
+        assertThat(stored.getName()).isEqualTo("Routing Test Updated");
+        assertThat(employeeService.getAttendance(stored))
+                .extracting(AttendanceRecord::date)
+                .contains("2024-03-01");
+    }
+
+    private static EmployeeInput input(String name) {
+        return EmployeeInput.builder()
+                .name(name)
+                .age(40)
+                .className("Routing")
+                .subjects(new ArrayList<>(List.of("Replication")))
+                .email("routing-" + UUID.randomUUID() + "@example.com")
+                .phone("5550000000")
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.employee.repository;
+
+import com.example.employee.dto.EmployeeSortField;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that every supported filter + sort combination can be answered by walking an index
+ * instead of sorting the filtered set. Sorting and sequential scans are disabled for the
+ * transaction, so the planner only falls back to them when no suitable index exists.
+ */
+@SpringBootTest
+@Transactional
+class EmployeeSortIndexTest {
+
+    private static final List<EmployeeSortField> CLASS_FILTER_SORTS = List.of(
+            EmployeeSortField.ID, EmployeeSortField.NAME, EmployeeSortField.AGE, EmployeeSortField.CLASS_NAME);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    static Stream<Arguments> supportedCombinations() {
+        List<Arguments> combinations = new ArrayList<>();
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            for (EmployeeSortField field : EmployeeSortField.values()) {
+                combinations.add(Arguments.of(false, field, direction));
+            }
+            for (EmployeeSortField field : CLASS_FILTER_SORTS) {
+                combinations.add(Arguments.of(true, field, direction));
+            }
+        }
+        return combinations.stream();
+    }
+
+    @BeforeEach
+    void disableSortsAndSequentialScans() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_sort = off");
+        jdbcTemplate.execute("SET LOCAL enable_incremental_sort = off");
+    }
+
+    @ParameterizedTest(name = "classFilter={0}, sortBy={1}, sortDir={2}")
+    @MethodSource("supportedCombinations")
+    void sortIsServedByAnIndex(boolean classFilter, EmployeeSortField sortBy, Sort.Direction sortDir) throws Exception {
+        String direction = sortDir.name();
+        String orderBy = sortBy == EmployeeSortField.ID
+                ? "id " + direction
+                : sortBy.getColumn() + " " + direction + ", id " + direction;
+        String where = classFilter ? " WHERE class_name = 'Engineering'" : "";
+
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN (FORMAT JSON) SELECT * FROM employees" + where + " ORDER BY " + orderBy + " LIMIT 10",
+                String.class);
+
+        List<String> nodeTypes = new ArrayList<>();
+        collectNodeTypes(objectMapper.readTree(plan).get(0).get("Plan"), nodeTypes);
+
+        assertThat(nodeTypes).anyMatch(type -> type.startsWith("Index"));
+        assertThat(nodeTypes).noneMatch(type -> type.endsWith("Sort"));
+    }
+
+    private void collectNodeTypes(JsonNode node, List<String> nodeTypes) {
+        nodeTypes.add(node.get("Node Type").asText());
+        if (node.has("Plans")) {
+            for (JsonNode child : node.get("Plans")) {
+                collectNodeTypes(child, nodeTypes);
+            }
+        }
+    }
+}
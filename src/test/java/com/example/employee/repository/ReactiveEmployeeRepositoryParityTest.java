@@ -0,0 +1,121 @@
+package com.example.employee.repository;
+
+import com.example.employee.dto.EmployeeInput;
+import com.example.employee.dto.EmployeeSortField;
+import com.example.employee.model.Employee;
+import com.example.employee.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same filter, sort and page through the JPA read path and through
+ * {@link ReactiveEmployeeRepository#findAll} and expects the same ids in the same order. The
+ * employees share ages, names and a missing email, so the id tiebreaker is exercised as well.
+ */
+@SpringBootTest(properties = "app.r2dbc.enabled=true")
+class ReactiveEmployeeRepositoryParityTest {
+
+    private static final int PAGE_SIZE = 4;
+
+    @DynamicPropertySource
+    static void r2dbc(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url",
+                () -> System.getenv("SPRING_DATASOURCE_URL").replaceFirst("^jdbc:", "r2dbc:"));
+    }
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReactiveEmployeeRepository reactiveEmployeeRepository;
+
+    private final String runId = UUID.randomUUID().toString();
+    private final String className = "Parity-" + runId;
+    private final List<Long> employeeIds = new ArrayList<>();
+
+    static Stream<Arguments> sortsAndFilters() {
+        List<Map<String, Object>> filters = List.of(
+                Map.of(),
+                Map.of("minAge", 30),
+                Map.of("subject", "SQL", "maxAge", 40),
+                Map.of("name", "an"));
+
+        List<Arguments> arguments = new ArrayList<>();
+        for (EmployeeSortField sortBy : EmployeeSortField.values()) {
+            for (Sort.Direction sortDir : Sort.Direction.values()) {
+                for (Map<String, Object> filter : filters) {
+                    arguments.add(Arguments.of(sortBy, sortDir, filter));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    @BeforeEach
+    void setUp() {
+        add("Dana", 41, "dana", "Linux");
+        add("Alan", 30, "alan", "Java", "SQL");
+        add("Alan", 30, null, "SQL");
+        add("Bob", 25, "bob", "SQL");
+        add("Carla", 30, "carla", "Go");
+        add("Ann", 52, null, "SQL", "Go");
+        add("Bob", 25, "bob2", "Sales");
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeIds.forEach(employeeService::deleteEmployee);
+    }
+
+    @ParameterizedTest
+    @MethodSource("sortsAndFilters")
+    void reactivePagesMatchJpa(EmployeeSortField sortBy, Sort.Direction sortDir, Map<String, Object> extraFilter) {
+        Map<String, Object> filter = new HashMap<>(extraFilter);
+        filter.put("className", className);
+
+        for (int page = 0; page < 3; page++) {
+            Page<Employee> jpa = employeeService.getAllEmployees(filter, page, PAGE_SIZE, sortBy, sortDir);
+            Page<Employee> reactive = reactiveEmployeeRepository
+                    .findAll(filter, page, PAGE_SIZE, sortBy, sortDir, false)
+                    .block();
+
+            assertThat(reactive).isNotNull();
+            assertThat(reactive.getContent()).extracting(Employee::getId)
+                    .as("page %d", page)
+                    .containsExactlyElementsOf(jpa.getContent().stream().map(Employee::getId).toList());
+            assertThat(reactive.getTotalElements()).isEqualTo(jpa.getTotalElements());
+        }
+    }
+
+    // Emails are unique, so the run id keeps them apart from other data
+    private void add(String name, int age, String emailUser, String... subjects) {
+        Employee employee = employeeService.addEmployee(EmployeeInput.builder()
+                .name(name)
+                .age(age)
+                .className(className)
+                .subjects(new ArrayList<>(Arrays.asList(subjects)))
+                .email(emailUser != null ? emailUser + "." + runId + "@example.com" : null)
+                .phone("5550000000")
+                .build());
+        employeeIds.add(employee.getId());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.employee.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Append, replay and checkpoint recovery of the write-behind log. Each test reopens the log
+ * files the way a restarted instance would. Segments are sized for a handful of records, so
+ * rotation happens after a few appends.
+ */
+class AttendanceWriteBehindLogTest {
+
+    // 16 byte header, 37 byte records and the end marker: six records per segment
+    private static final int CAPACITY = 256;
+    private static final int RECORDS_PER_SEGMENT = 6;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendedMarksAreReplayedInOrder() throws IOException {
+        Path path = dir.resolve("wb.log");
+        try (AttendanceWriteBehindLog log = open(path)) {
+            log.append(1L, "2024-03-01", true);
+            log.append(2L, "2024-03-01", false);
+            log.append(1L, "2024-03-02", true);
+        }
+
+        try (AttendanceWriteBehindLog log = open(path)) {
+            assertThat(log.recover()).containsExactly(
+                    new AttendanceWriteBehindLog.Entry(1, 1L, "2024-03-01", true),
+                    new AttendanceWriteBehindLog.Entry(2, 2L, "2024-03-01", false),
+                    new AttendanceWriteBehindLog.Entry(3, 1L, "2024-03-02", true));
+            assertThat(log.getLastSeq()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void checkpointedMarksAreNotReplayed() throws IOException {
+        Path path = dir.resolve("wb.log");
+        try (AttendanceWriteBehindLog log = open(path)) {
+            log.append(1L, "2024-03-01", true);
+            log.append(2L, "2024-03-01", true);
+            log.checkpoint(2);
+            log.append(3L, "2024-03-01", false);
+        }
+
+        try (AttendanceWriteBehindLog log = open(path)) {
+            assertThat(log.recover()).containsExactly(new AttendanceWriteBehindLog.Entry(3, 3L, "2024-03-01", false));
+            // Sequences continue after the replayed ones
+            assertThat(log.append(4L, "2024-03-01", true).seq()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void fullyCheckpointedLogReplaysNothing() throws IOException {
+        Path path = dir.resolve("wb.log");
+        try (AttendanceWriteBehindLog log = open(path)) {
+            for (int i = 0; i < RECORDS_PER_SEGMENT; i++) {
+                log.append(i, "2024-03-01", true);
+            }
+            log.checkpoint(log.getLastSeq());
+            log.append(99L, "2024-03-02", true);
+            log.checkpoint(log.getLastSeq());
+        }
+
+        try (AttendanceWriteBehindLog log = open(path)) {
+            assertThat(log.recover()).isEmpty();
+            assertThat(log.getLastSeq()).isEqualTo(RECORDS_PER_SEGMENT + 1);
+        }
+    }
+
+    @Test
+    void steadyTrafficNeverFillsTheLog() throws IOException {
+        Path path = dir.resolve("wb.log");
+        try (AttendanceWriteBehindLog log = open(path)) {
+            // The flusher always trails the appends by a record, so the tail is never empty
+            for (int i = 1; i <= RECORDS_PER_SEGMENT * 10; i++) {
+                assertThat(log.append(i, "2024-03-01", true)).as("append %d", i).isNotNull();
+                log.checkpoint(i - 1);
+            }
+            log.append(1000L, "2024-03-02", false);
+        }
+
+        try (AttendanceWriteBehindLog log = open(path)) {
+            assertThat(log.recover())
+                    .extracting(AttendanceWriteBehindLog.Entry::employeeId)
+                    .containsExactly((long) RECORDS_PER_SEGMENT * 10, 1000L);
+        }
+    }
+
+    @Test
+    void logIsFullUntilTheOtherSegmentIsCheckpointed() throws IOException {
+        Path path = dir.resolve("wb.log");
+        try (AttendanceWriteBehindLog log = open(path)) {
+            for (int i = 1; i <= RECORDS_PER_SEGMENT * 2; i++) {
+                assertThat(log.append(i, "2024-03-01", true)).isNotNull();
+            }
+            assertThat(log.append(100L, "2024-03-01", true)).isNull();
+
+            // The first segment only becomes free once all of its records are in the database
+            log.checkpoint(RECORDS_PER_SEGMENT - 1);
+            assertThat(log.append(100L, "2024-03-01", true)).isNull();
+            log.checkpoint(RECORDS_PER_SEGMENT);
+            assertThat(log.append(100L, "2024-03-01", true)).isNotNull();
+        }
+
+        try (AttendanceWriteBehindLog log = open(path)) {
+            List<AttendanceWriteBehindLog.Entry> entries = log.recover();
+            assertThat(entries).extracting(AttendanceWriteBehindLog.Entry::seq)
+                    .containsExactly(7L, 8L, 9L, 10L, 11L, 12L, 13L);
+            assertThat(entries.get(entries.size() - 1).employeeId()).isEqualTo(100L);
+        }
+    }
+
+    @Test
+    void tornRecordEndsTheReplay() throws IOException {
+        Path path = dir.resolve("wb.log");
+        int position;
+        try (AttendanceWriteBehindLog log = open(path)) {
+            log.append(1L, "2024-03-01", true);
+            position = log.append(2L, "2024-03-01", true).position();
+            log.append(3L, "2024-03-01", true);
+        }
+
+        // Flip the employee id of the second record, as if the crash hit halfway through writing it
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, 42L), position + 16);
+        }
+
+        try (AttendanceWriteBehindLog log = open(path)) {
+            assertThat(log.recover()).extracting(AttendanceWriteBehindLog.Entry::seq).containsExactly(1L);
+            assertThat(log.append(4L, "2024-03-01", true).position()).isEqualTo(position);
+        }
+    }
+
+    private static AttendanceWriteBehindLog open(Path path) throws IOException {
+        return AttendanceWriteBehindLog.open(path, CAPACITY);
+    }
+}
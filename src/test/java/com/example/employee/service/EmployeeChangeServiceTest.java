@@ -0,0 +1,172 @@
+package com.example.employee.service;
+
+import com.example.employee.dto.EmployeeInput;
+import com.example.employee.service.EmployeeChangeService.Change;
+import com.example.employee.service.EmployeeChangeService.ChangeKind;
+import com.example.employee.service.EmployeeChangeService.ChangePage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Reads the change feed the way a syncing client does: take the head cursor, write, then follow
+ * the cursors page by page. Only changes of the employees created here are looked at, so other
+ * writes to the same database don't disturb the assertions.
+ */
+@SpringBootTest
+class EmployeeChangeServiceTest {
+
+    private static final int MAX_PAGES = 1000;
+
+    @Autowired
+    private EmployeeChangeService employeeChangeService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    // Still to be deleted after the test, and every id created by it
+    private final List<Long> employeeIds = new ArrayList<>();
+    private final Set<Long> createdIds = new HashSet<>();
+
+    @AfterEach
+    void tearDown() {
+        employeeIds.forEach(employeeService::deleteEmployee);
+    }
+
+    @Test
+    void pagesResumeFromTheirCursorWithoutGapsOrRepeats() {
+        String head = employeeChangeService.getChanges(null, 1).cursor();
+
+        Long first = add("Cursor One");
+        Long second = add("Cursor Two");
+        employeeService.markAttendance(first, "2024-03-01", true);
+        employeeService.markAttendance(second, "2024-03-01", true);
+        employeeService.markAttendance(first, "2024-03-04", false);
+
+        // One entry per page, so every cursor is resumed from
+        List<Change> paged = follow(head, 1);
+        List<Change> whole = follow(head, 100);
+
+        assertThat(paged)
+                .extracting(Change::kind, Change::employeeId, Change::attendanceDate)
+                .containsExactly(
+                        tuple(ChangeKind.UPSERTED, first, null),
+                        tuple(ChangeKind.UPSERTED, second, null),
+                        tuple(ChangeKind.ATTENDANCE, first, LocalDate.of(2024, 3, 1)),
+                        tuple(ChangeKind.ATTENDANCE, second, LocalDate.of(2024, 3, 1)),
+                        tuple(ChangeKind.ATTENDANCE, first, LocalDate.of(2024, 3, 4)));
+        assertThat(whole).extracting(Change::kind, Change::employeeId, Change::attendanceDate)
+                .containsExactlyElementsOf(paged.stream()
+                        .map(change -> tuple(change.kind(), change.employeeId(), change.attendanceDate()))
+                        .toList());
+
+        // The last cursor is where the next poll starts: nothing new yet, same cursor back
+        String last = lastCursor(head, 100);
+        ChangePage empty = employeeChangeService.getChanges(last, 100);
+        assertThat(mine(empty.changes())).isEmpty();
+        assertThat(empty.hasMore()).isFalse();
+    }
+
+    @Test
+    void attendanceChangesCarryTheStoredMark() {
+        Long id = add("Remarked");
+        String after = lastCursor(employeeChangeService.getChanges(null, 1).cursor(), 100);
+
+        employeeService.markAttendance(id, "2024-03-01", true);
+        employeeService.markAttendance(id, "2024-03-01", false);
+
+        // Both marks of the day collapse into the stored one within a page
+        assertThat(follow(after, 100))
+                .extracting(Change::kind, Change::attendanceDate, Change::present)
+                .containsExactly(tuple(ChangeKind.ATTENDANCE, LocalDate.of(2024, 3, 1), false));
+
+        // On its own page the overwritten mark reports the stored value too, so replaying the
+        // pages ends at the stored mark whatever order the writers committed in
+        assertThat(follow(after, 1))
+                .extracting(Change::kind, Change::present)
+                .containsExactly(tuple(ChangeKind.ATTENDANCE, false), tuple(ChangeKind.ATTENDANCE, false));
+    }
+
+    @Test
+    void deletedEmployeesLeaveATombstone() {
+        String head = employeeChangeService.getChanges(null, 1).cursor();
+
+        Long id = add("Tombstone");
+        employeeService.markAttendance(id, "2024-03-01", true);
+        employeeService.deleteEmployee(id);
+        employeeIds.remove(id);
+
+        List<Change> changes = follow(head, 100);
+        assertThat(changes)
+                .extracting(Change::kind, Change::employeeId)
+                .containsExactly(
+                        tuple(ChangeKind.UPSERTED, id),
+                        tuple(ChangeKind.ATTENDANCE, id),
+                        tuple(ChangeKind.DELETED, id));
+        // Gone by the time the page is read, so the upsert has no state left to carry
+        assertThat(changes.get(0).employee()).isNull();
+        assertThat(changes.get(1).present()).isTrue();
+        assertThat(changes.get(2).employee()).isNull();
+
+        // Read one at a time, the tombstone is still the last word
+        assertThat(follow(head, 1)).last()
+                .extracting(Change::kind, Change::employeeId)
+                .containsExactly(ChangeKind.DELETED, id);
+    }
+
+    private List<Change> follow(String cursor, int pageSize) {
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < MAX_PAGES; i++) {
+            ChangePage page = employeeChangeService.getChanges(cursor, pageSize);
+            changes.addAll(mine(page.changes()));
+            if (!page.hasMore()) {
+                return changes;
+            }
+            assertThat(page.cursor()).isNotEqualTo(cursor);
+            cursor = page.cursor();
+        }
+        throw new AssertionError("Change feed did not end after " + MAX_PAGES + " pages");
+    }
+
+    private String lastCursor(String cursor, int pageSize) {
+        for (int i = 0; i < MAX_PAGES; i++) {
+            ChangePage page = employeeChangeService.getChanges(cursor, pageSize);
+            cursor = page.cursor();
+            if (!page.hasMore()) {
+                return cursor;
+            }
+        }
+        throw new AssertionError("Change feed did not end after " + MAX_PAGES + " pages");
+    }
+
+    private List<Change> mine(List<Change> changes) {
+        return changes.stream()
+                .filter(change -> createdIds.contains(change.employeeId()))
+                .toList();
+    }
+
+    private Long add(String name) {
+        Long id = employeeService.addEmployee(EmployeeInput.builder()
+                .name(name)
+                .age(35)
+                .className("Changes")
+                .subjects(new ArrayList<>(List.of("Sync")))
+                .email("changes-" + UUID.randomUUID() + "@example.com")
+                .phone("5550000000")
+                .build()).getId();
+        employeeIds.add(id);
+        createdIds.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.employee.service;
+
+import com.example.employee.dto.EmployeeSortField;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeDirectorySnapshotTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private final EmployeeDirectorySnapshot snapshot = EmployeeDirectorySnapshot.of(List.of(
+            row(4, "Dana", 41, "Ops", List.of("Linux"), null),
+            row(1, "Alice", 30, "Engineering", List.of("Java", "SQL"), "alice@example.com"),
+            row(3, "Carol", 30, "Engineering", List.of("Go"), "carol@example.com"),
+            row(2, "Bob", 25, "Sales", List.of("SQL"), "bob@example.com")
+    ));
+
+    @Test
+    void unfilteredQueryPagesInIdOrder() {
+        EmployeeDirectorySnapshot.Result result = snapshot.query(Map.of(), EmployeeSortField.ID, Sort.Direction.ASC, 1, 2);
+
+        assertThat(result.ids()).containsExactly(3L, 4L);
+        assertThat(result.total()).isEqualTo(4);
+    }
+
+    @Test
+    void classAndSubjectFiltersIntersect() {
+        EmployeeDirectorySnapshot.Result result = snapshot.query(
+                Map.of("className", "Engineering", "subject", "SQL"), EmployeeSortField.ID, Sort.Direction.ASC, 0, 10);
+
+        assertThat(result.ids()).containsExactly(1L);
+        assertThat(result.total()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownClassMatchesNothing() {
+        EmployeeDirectorySnapshot.Result result = snapshot.query(
+                Map.of("className", "Legal"), EmployeeSortField.NAME, Sort.Direction.ASC, 0, 10);
+
+        assertThat(result.ids()).isEmpty();
+        assertThat(result.total()).isZero();
+    }
+
+    @Test
+    void ageRangeAndNameAreApplied() {
+        EmployeeDirectorySnapshot.Result result = snapshot.query(
+                Map.of("minAge", 26, "maxAge", "41", "name", "A"), EmployeeSortField.NAME, Sort.Direction.ASC, 0, 10);
+
+        // "a" is contained in Alice, Carol and Dana; Bob is too young anyway
+        assertThat(result.ids()).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    void descendingSortReversesFieldAndIdTiebreaker() {
+        EmployeeDirectorySnapshot.Result result = snapshot.query(Map.of(), EmployeeSortField.AGE, Sort.Direction.DESC, 0, 10);
+
+        assertThat(result.ids()).containsExactly(4L, 3L, 1L, 2L);
+    }
+
+    @Test
+    void nullEmailsSortLastAscending() {
+        EmployeeDirectorySnapshot.Result result = snapshot.query(Map.of(), EmployeeSortField.EMAIL, Sort.Direction.ASC, 0, 10);
+
+        assertThat(result.ids()).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void changedRowMovesInTheSortOrderAndBitmaps() {
+        EmployeeDirectorySnapshot changed = snapshot.withChanges(
+                List.of(row(2, "Bob", 50, "Engineering", List.of("Java"), "bob@example.com")), List.of());
+
+        assertThat(changed.query(Map.of(), EmployeeSortField.AGE, Sort.Direction.ASC, 0, 10).ids())
+                .containsExactly(1L, 3L, 4L, 2L);
+        assertThat(changed.query(Map.of("className", "Engineering", "subject", "Java"),
+                EmployeeSortField.ID, Sort.Direction.ASC, 0, 10).ids()).containsExactly(1L, 2L);
+        assertThat(changed.query(Map.of("className", "Sales"), EmployeeSortField.ID, Sort.Direction.ASC, 0, 10).total())
+                .isZero();
+        // The previous snapshot is left as it was
+        assertThat(snapshot.query(Map.of("className", "Sales"), EmployeeSortField.ID, Sort.Direction.ASC, 0, 10).ids())
+                .containsExactly(2L);
+    }
+
+    @Test
+    void deletedRowsDisappearAndTheirSlotsAreReused() {
+        EmployeeDirectorySnapshot changed = snapshot
+                .withChanges(List.of(), List.of(3L, 99L))
+                .withChanges(List.of(row(5, "Eve", 28, "Sales", List.of("Go"), "eve@example.com")), List.of());
+
+        assertThat(changed.size()).isEqualTo(4);
+        assertThat(changed.query(Map.of(), EmployeeSortField.ID, Sort.Direction.ASC, 0, 10).ids())
+                .containsExactly(1L, 2L, 4L, 5L);
+        assertThat(changed.query(Map.of("subject", "Go"), EmployeeSortField.ID, Sort.Direction.ASC, 0, 10).ids())
+                .containsExactly(5L);
+        assertThat(changed.query(Map.of("name", "carol"), EmployeeSortField.ID, Sort.Direction.ASC, 0, 10).total())
+                .isZero();
+    }
+
+    @Test
+    void incrementalChangesMatchARebuild() {
+        List<EmployeeDirectorySnapshot.Row> upserts = List.of(
+                row(1, "Zed", 30, "Ops", List.of("SQL"), "zed@example.com"),
+                row(6, "Faye", 22, "Engineering", List.of("Java"), null),
+                row(7, "Abe", 41, "Ops", List.of(), "abe@example.com"));
+        EmployeeDirectorySnapshot changed = snapshot.withChanges(upserts, List.of(4L));
+        EmployeeDirectorySnapshot rebuilt = EmployeeDirectorySnapshot.of(List.of(
+                upserts.get(0), upserts.get(1), upserts.get(2),
+                row(3, "Carol", 30, "Engineering", List.of("Go"), "carol@example.com"),
+                row(2, "Bob", 25, "Sales", List.of("SQL"), "bob@example.com")));
+
+        for (EmployeeSortField sortBy : EmployeeSortField.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                assertThat(changed.query(Map.of("minAge", 23), sortBy, direction, 0, 10))
+                        .as("%s %s", sortBy, direction)
+                        .isEqualTo(rebuilt.query(Map.of("minAge", 23), sortBy, direction, 0, 10));
+            }
+        }
+    }
+
+    private static EmployeeDirectorySnapshot.Row row(long id, String name, int age, String className,
+                                                     List<String> subjects, String email) {
+        return new EmployeeDirectorySnapshot.Row(id, name, age, className, subjects, email, NOW, NOW);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.employee.service;
+
+import com.example.employee.dto.EmployeeInput;
+import com.example.employee.model.Employee;
+import com.example.employee.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a single employee with attendance marks and profile updates from many threads at once
+ * and checks that every write survived: one attendance row per mark, and one version bump per
+ * update. Conflicting updates have to be retried, so the retry budget is raised for the test.
+ */
+@SpringBootTest(properties = {
+        "app.employees.write-retry.max-attempts=100",
+        "app.employees.write-retry.backoff=2ms"
+})
+class EmployeeServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int MARKS_PER_THREAD = 20;
+    private static final int UPDATE_EVERY = 5;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long employeeId;
+
+    @AfterEach
+    void deleteEmployee() {
+        if (employeeId != null) {
+            employeeService.deleteEmployee(employeeId);
+        }
+    }
+
+    @Test
+    void concurrentMarksAndUpdatesAreNotLost() throws Exception {
+        Employee employee = employeeService.addEmployee(input("Stress Test", 30));
+        employeeId = employee.getId();
+        long initialVersion = employee.getVersion();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < MARKS_PER_THREAD; i++) {
+                    employeeService.markAttendance(employeeId, dateFor(thread, i), i % 2 == 0);
+                    if (i % UPDATE_EVERY == 0) {
+                        // Unique name, so every update really changes the row and bumps the version
+                        employeeService.updateEmployee(employeeId, input("Stress " + thread + "-" + i, 20 + thread));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Map<LocalDate, Boolean> attendance = transactionTemplate.execute(status ->
+                new HashMap<>(employeeRepository.findById(employeeId).orElseThrow().getAttendanceData()));
+        Long version = transactionTemplate.execute(status ->
+                employeeRepository.findById(employeeId).orElseThrow().getVersion());
+
+        assertThat(attendance).hasSize(THREADS * MARKS_PER_THREAD);
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < MARKS_PER_THREAD; i++) {
+                assertThat(attendance).containsEntry(LocalDate.parse(dateFor(t, i)), i % 2 == 0);
+            }
+        }
+
+        int updates = THREADS * ((MARKS_PER_THREAD + UPDATE_EVERY - 1) / UPDATE_EVERY);
+        assertThat(version).isEqualTo(initialVersion + updates);
+    }
+
+    private static String dateFor(int thread, int mark) {
+        return FIRST_DAY.plusDays((long) thread * MARKS_PER_THREAD + mark).toString();
+    }
+
+    private static EmployeeInput input(String name, int age) {
+        return EmployeeInput.builder()
+                .name(name)
+                .age(age)
+                .className("Stress")
+                .subjects(new ArrayList<>(List.of("Concurrency")))
+                .email("stress-" + UUID.randomUUID() + "@example.com")
+                .phone("5550000000")
+                .build();
+    }
+}